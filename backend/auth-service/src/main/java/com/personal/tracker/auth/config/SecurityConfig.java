@@ -28,6 +28,7 @@ public class SecurityConfig {
                         "/api/auth/register",
                         "/api/auth/forgot",
                         "/api/auth/reset",
+                        "/api/auth/dev/mail",
                         "/v3/api-docs/**",
                         "/v3/api-docs.yaml",
                         "/swagger-ui/**",
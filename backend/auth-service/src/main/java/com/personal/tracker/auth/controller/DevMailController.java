@@ -0,0 +1,53 @@
+package com.personal.tracker.auth.controller;
+
+import com.personal.tracker.auth.service.DevMailSink;
+import com.personal.tracker.auth.service.DevMailSink.ResetHint;
+import com.personal.tracker.common.error.ApiError;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+/**
+ * Lets local test drivers read the reset mail the sink captured. Only registered when {@code mail.sink.enabled}.
+ */
+@RestController
+@RequestMapping(path = "/api/auth/dev", produces = MediaType.APPLICATION_JSON_VALUE)
+@ConditionalOnProperty(name = "mail.sink.enabled", havingValue = "true")
+@Tag(name = "Development", description = "Captured mail for local testing")
+public class DevMailController {
+
+    private final DevMailSink mailSink;
+
+    public DevMailController(DevMailSink mailSink) {
+        this.mailSink = mailSink;
+    }
+
+    @GetMapping("/mail")
+    @Operation(summary = "Captured reset mail", description = "Latest reset hint captured for an email",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Hint found",
+                content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = ResetHint.class))),
+            @ApiResponse(responseCode = "404", description = "No captured mail for this email",
+                content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = ApiError.class)))
+        })
+    public Mono<ResetHint> mail(@RequestParam String email) {
+        ResetHint hint = mailSink.find(email);
+        if (hint == null) {
+            return Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "No captured mail for " + email));
+        }
+        return Mono.just(hint);
+    }
+}
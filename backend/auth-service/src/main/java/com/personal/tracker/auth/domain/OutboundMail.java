@@ -0,0 +1,6 @@
+package com.personal.tracker.auth.domain;
+
+import java.util.UUID;
+
+public record OutboundMail(UUID id, String recipient, String subject, String body, int attempts) {
+}
@@ -0,0 +1,74 @@
+package com.personal.tracker.auth.repository;
+
+import java.time.Instant;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+@Repository
+public class LoginFailureRepository {
+
+    private final DatabaseClient databaseClient;
+    private final boolean h2;
+
+    public LoginFailureRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+        this.h2 = "H2".equalsIgnoreCase(databaseClient.getConnectionFactory().getMetadata().getName());
+    }
+
+    /**
+     * Blocks until the current transaction holds the lock for {@code username}; it is released at commit.
+     * Postgres takes an advisory lock, which works whether or not the user has failures yet. H2 has none and
+     * locks the user's row instead, which is enough for the tests it backs.
+     */
+    public Mono<Void> lockUsername(String username) {
+        String sql = h2
+                ? "SELECT id FROM users WHERE username = :username FOR UPDATE"
+                : "SELECT pg_advisory_xact_lock(hashtext('login_failures'), hashtext(:username))";
+        return databaseClient.sql(sql).bind("username", username).then();
+    }
+
+    public Mono<Long> countSince(String username, Instant since) {
+        return databaseClient.sql("SELECT COUNT(*) AS failures FROM login_failures WHERE username = :username AND failed_at > :since")
+                .bind("username", username)
+                .bind("since", since)
+                .map((row, metadata) -> row.get("failures", Long.class))
+                .one();
+    }
+
+    public Mono<Long> insert(String username, Instant failedAt) {
+        return databaseClient.sql("INSERT INTO login_failures (username, failed_at) VALUES (:username, :failedAt)")
+                .bind("username", username)
+                .bind("failedAt", failedAt)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Deletes the user's most recent failure. The table has no key, so each database addresses the row by
+     * its own physical row id.
+     */
+    public Mono<Long> deleteNewest(String username) {
+        String rowId = h2 ? "_ROWID_" : "ctid";
+        return databaseClient.sql("DELETE FROM login_failures WHERE " + rowId + " = (SELECT " + rowId
+                        + " FROM login_failures WHERE username = :username ORDER BY failed_at DESC LIMIT 1)")
+                .bind("username", username)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> deleteByUsername(String username) {
+        return databaseClient.sql("DELETE FROM login_failures WHERE username = :username")
+                .bind("username", username)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> deleteOlderThan(Instant cutoff) {
+        return databaseClient.sql("DELETE FROM login_failures WHERE failed_at <= :cutoff")
+                .bind("cutoff", cutoff)
+                .fetch()
+                .rowsUpdated();
+    }
+}
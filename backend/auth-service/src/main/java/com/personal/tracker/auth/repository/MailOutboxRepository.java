@@ -0,0 +1,100 @@
+package com.personal.tracker.auth.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.UUID;
+
+import com.personal.tracker.auth.domain.OutboundMail;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public class MailOutboxRepository {
+
+    private static final String PENDING = "PENDING";
+    private static final String FAILED = "FAILED";
+
+    private final DatabaseClient databaseClient;
+
+    public MailOutboxRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Mono<Long> insert(OutboundMail mail, Instant now) {
+        return databaseClient.sql("""
+                        INSERT INTO mail_outbox (id, recipient, subject, body, status, attempts, next_attempt_at, created_at)
+                        VALUES (:id, :recipient, :subject, :body, :status, 0, :now, :now)""")
+                .bind("id", mail.id())
+                .bind("recipient", mail.recipient())
+                .bind("subject", mail.subject())
+                .bind("body", mail.body())
+                .bind("status", PENDING)
+                .bind("now", now)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Claims up to {@code limit} due rows until {@code leaseUntil} and returns them. The outer predicate is
+     * re-checked against rows another node has just claimed, so concurrent claims never overlap.
+     */
+    public Flux<OutboundMail> claimDue(Instant now, Instant leaseUntil, int limit) {
+        UUID claimId = UUID.randomUUID();
+        return databaseClient.sql("""
+                        UPDATE mail_outbox SET claim_id = :claimId, next_attempt_at = :leaseUntil
+                        WHERE id IN (SELECT id FROM mail_outbox WHERE status = :status AND next_attempt_at <= :now
+                                     ORDER BY next_attempt_at LIMIT :limit)
+                          AND status = :status AND next_attempt_at <= :now""")
+                .bind("claimId", claimId)
+                .bind("leaseUntil", leaseUntil)
+                .bind("status", PENDING)
+                .bind("now", now)
+                .bind("limit", limit)
+                .fetch()
+                .rowsUpdated()
+                .flatMapMany(claimed -> claimed == 0 ? Flux.empty() : databaseClient.sql(
+                                "SELECT id, recipient, subject, body, attempts FROM mail_outbox WHERE claim_id = :claimId")
+                        .bind("claimId", claimId)
+                        .map((row, metadata) -> new OutboundMail(
+                                row.get("id", UUID.class),
+                                row.get("recipient", String.class),
+                                row.get("subject", String.class),
+                                row.get("body", String.class),
+                                row.get("attempts", Integer.class)))
+                        .all());
+    }
+
+    public Mono<Long> deleteAll(Collection<UUID> ids) {
+        return databaseClient.sql("DELETE FROM mail_outbox WHERE id IN (:ids)")
+                .bind("ids", ids)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> reschedule(UUID id, int attempts, Instant nextAttemptAt, String error) {
+        return databaseClient.sql("""
+                        UPDATE mail_outbox SET attempts = :attempts, next_attempt_at = :nextAttemptAt, claim_id = NULL,
+                               last_error = :error
+                        WHERE id = :id""")
+                .bind("attempts", attempts)
+                .bind("nextAttemptAt", nextAttemptAt)
+                .bind("error", error)
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> markFailed(UUID id, int attempts, String error) {
+        return databaseClient.sql("""
+                        UPDATE mail_outbox SET status = :status, attempts = :attempts, claim_id = NULL, last_error = :error
+                        WHERE id = :id""")
+                .bind("status", FAILED)
+                .bind("attempts", attempts)
+                .bind("error", error)
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+}
@@ -1,15 +1,42 @@
 package com.personal.tracker.auth.repository;
 
 import com.personal.tracker.auth.domain.ResetTokenEntity;
+import java.time.Instant;
 import java.util.UUID;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 public interface ResetTokenRepository extends ReactiveCrudRepository<ResetTokenEntity, UUID> {
+
+    String FIND_REUSABLE = """
+            SELECT * FROM password_resets
+            WHERE user_id = :userId AND used = FALSE AND created_at > :createdAfter AND expires_at > :now
+            ORDER BY created_at DESC
+            LIMIT 1""";
+
     Mono<ResetTokenEntity> findByTokenAndUsedFalse(String token);
 
     Mono<ResetTokenEntity> findByOtpAndUsedFalse(String otp);
 
-    Flux<ResetTokenEntity> findByUserIdAndUsedFalse(UUID userId);
+    /**
+     * The user's newest unused reset created after {@code createdAfter} that has not expired, read from
+     * idx_password_resets_user_created so the cost does not grow with the number of resets requested.
+     */
+    @Query(FIND_REUSABLE)
+    Mono<ResetTokenEntity> findReusable(UUID userId, Instant createdAfter, Instant now);
+
+    @Modifying
+    @Query("UPDATE password_resets SET used = TRUE WHERE user_id = :userId AND used = FALSE")
+    Mono<Long> markAllUsed(UUID userId);
+
+    /**
+     * Deletes up to {@code limit} resets that can no longer be redeemed, because they were used or have expired.
+     */
+    @Modifying
+    @Query("""
+            DELETE FROM password_resets WHERE id IN (
+                SELECT id FROM password_resets WHERE used = TRUE OR expires_at < :now LIMIT :limit)""")
+    Mono<Long> deleteSpentBatch(Instant now, int limit);
 }
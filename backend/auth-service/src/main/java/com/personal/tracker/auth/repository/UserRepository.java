@@ -2,7 +2,9 @@ package com.personal.tracker.auth.repository;
 
 import com.personal.tracker.auth.domain.UserEntity;
 import java.util.UUID;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 public interface UserRepository extends ReactiveCrudRepository<UserEntity, UUID> {
@@ -10,7 +12,15 @@ public interface UserRepository extends ReactiveCrudRepository<UserEntity, UUID>
 
     Mono<UserEntity> findByEmail(String email);
 
-    Mono<Boolean> existsByUsername(String username);
+    /**
+     * One row per existing user holding {@code username} or {@code email}, read from the two unique indexes in
+     * a single round trip.
+     */
+    @Query("""
+            SELECT username = :username AS username_taken, email = :email AS email_taken
+            FROM users WHERE username = :username OR email = :email""")
+    Flux<TakenName> findTakenNames(String username, String email);
 
-    Mono<Boolean> existsByEmail(String email);
+    record TakenName(boolean usernameTaken, boolean emailTaken) {
+    }
 }
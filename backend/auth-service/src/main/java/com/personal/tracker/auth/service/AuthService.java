@@ -7,28 +7,24 @@ import com.personal.tracker.auth.model.RegisterRequest;
 import com.personal.tracker.auth.model.ResetPasswordRequest;
 import com.personal.tracker.auth.repository.ResetTokenRepository;
 import com.personal.tracker.auth.repository.UserRepository;
+import com.personal.tracker.auth.repository.UserRepository.TakenName;
 import com.personal.tracker.common.security.JwtService;
 import com.personal.tracker.common.security.JwtService.TokenResult;
+import io.r2dbc.postgresql.api.PostgresqlException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.security.SecureRandom;
 import java.time.Duration;
 import java.time.Instant;
-import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
-import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
 @Service
 public class AuthService {
@@ -36,96 +32,133 @@ public class AuthService {
     private final UserStore userStore;
     private final UserRepository userRepository;
     private final ResetTokenRepository resetTokenRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
     private final JwtService jwtService;
     private final DevMailSink mailSink;
-    private final JavaMailSender mailSender;
+    private final MailDispatcher mailDispatcher;
     private final SecureRandom secureRandom = new SecureRandom();
     private final Duration resetTtl;
     private final String frontendResetBaseUrl;
     private final boolean sinkEnabled;
-    private final boolean mailAvailable;
-    private final String mailFrom;
-    private final ConcurrentMap<String, Integer> loginAttempts = new ConcurrentHashMap<>();
+    private final LoginAttemptLimiter loginAttemptLimiter;
     private static final int MAX_LOGIN_ATTEMPTS = 5;
     private static final Duration OTP_REUSE_WINDOW = Duration.ofMinutes(2);
+    private static final String USERNAME_CONSTRAINT = "users_username_key";
+    private static final String EMAIL_CONSTRAINT = "users_email_key";
 
     public AuthService(UserStore userStore,
                        UserRepository userRepository,
                        ResetTokenRepository resetTokenRepository,
-                       PasswordEncoder passwordEncoder,
+                       PasswordHasher passwordHasher,
+                       LoginAttemptLimiter loginAttemptLimiter,
                        JwtService jwtService,
                        DevMailSink mailSink,
-                       ObjectProvider<JavaMailSender> mailSenderProvider,
+                       MailDispatcher mailDispatcher,
                        @Value("${security.reset.ttl-minutes:15}") long resetTtlMinutes,
                        @Value("${security.reset.frontend-url:http://localhost:5173/reset}") String frontendResetBaseUrl,
-                       @Value("${mail.sink.enabled:false}") boolean sinkEnabled,
-                       @Value("${mail.smtp.host:}") String smtpHost,
-                       @Value("${mail.smtp.from:}") String smtpFrom) {
+                       @Value("${mail.sink.enabled:false}") boolean sinkEnabled) {
         this.userStore = userStore;
         this.userRepository = userRepository;
         this.resetTokenRepository = resetTokenRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHasher = passwordHasher;
+        this.loginAttemptLimiter = loginAttemptLimiter;
         this.jwtService = jwtService;
         this.mailSink = mailSink;
-        this.mailSender = mailSenderProvider.getIfAvailable();
+        this.mailDispatcher = mailDispatcher;
         this.resetTtl = Duration.ofMinutes(resetTtlMinutes);
         this.frontendResetBaseUrl = frontendResetBaseUrl;
         this.sinkEnabled = sinkEnabled;
-        boolean hasHost = smtpHost != null && !smtpHost.isBlank();
-        this.mailAvailable = hasHost && this.mailSender != null;
-        this.mailFrom = smtpFrom != null && !smtpFrom.isBlank() ? smtpFrom : smtpHost;
     }
 
     public Mono<TokenResult> authenticate(String username, String password) {
         return userStore.findByUsername(username)
                 .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Username is wrong")))
-                .flatMap(user -> {
-                    int attempts = loginAttempts.getOrDefault(user.username(), 0);
-                    if (attempts >= MAX_LOGIN_ATTEMPTS) {
-                        return Mono.error(new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Maximum login attempts reached. Please reset your password."));
-                    }
-
-                    if (!passwordEncoder.matches(password, user.passwordHash())) {
-                        int updated = loginAttempts.merge(user.username(), 1, Integer::sum);
-                        int remaining = MAX_LOGIN_ATTEMPTS - updated;
-                        String message = updated >= MAX_LOGIN_ATTEMPTS
-                                ? "Maximum login attempts reached. Please reset your password."
-                                : String.format("Incorrect password. %d retries remaining.", remaining);
-                        HttpStatus status = updated >= MAX_LOGIN_ATTEMPTS ? HttpStatus.TOO_MANY_REQUESTS : HttpStatus.UNAUTHORIZED;
-                        return Mono.error(new ResponseStatusException(status, message));
-                    }
+                .flatMap(user -> loginAttemptLimiter.reserve(user.username(), MAX_LOGIN_ATTEMPTS)
+                        .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Maximum login attempts reached. Please reset your password.")))
+                        .flatMap(attempts -> passwordHasher.matches(password, user.passwordHash())
+                                // A check that never ran, e.g. a 429 from a full hashing pool, must not cost an attempt.
+                                .onErrorResume(error -> loginAttemptLimiter.release(user.username()).then(Mono.error(error)))
+                                .flatMap(matches -> {
+                                    if (!matches) {
+                                        int remaining = MAX_LOGIN_ATTEMPTS - attempts;
+                                        String message = attempts >= MAX_LOGIN_ATTEMPTS
+                                                ? "Maximum login attempts reached. Please reset your password."
+                                                : String.format("Incorrect password. %d retries remaining.", remaining);
+                                        HttpStatus status = attempts >= MAX_LOGIN_ATTEMPTS ? HttpStatus.TOO_MANY_REQUESTS : HttpStatus.UNAUTHORIZED;
+                                        return Mono.error(new ResponseStatusException(status, message));
+                                    }
 
-                    loginAttempts.remove(user.username());
-                    return jwtService.issueToken(user.username(), user.roles());
-                });
+                                    // The attempt was reserved as a failure before the check; a match withdraws it.
+                                    return loginAttemptLimiter.reset(user.username())
+                                            .then(jwtService.issueToken(user.username(), user.roles()));
+                                })));
     }
 
     public Mono<TokenResult> register(RegisterRequest request) {
-        return userRepository.existsByUsername(request.username())
-                .flatMap(usernameExists -> {
-                    if (usernameExists) {
-                        return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Username already in use"));
-                    }
-                    return userRepository.existsByEmail(request.email());
-                })
-                .flatMap(emailExists -> {
-                    if (emailExists) {
-                        return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Email already in use"));
-                    }
+        // Taken names are turned away before bcrypt takes a slot on the hashing pool. Registrations racing for
+        // the same name still both hash; the unique constraints then reject all but one at INSERT.
+        return rejectTaken(request)
+                .then(passwordHasher.encode(request.password()))
+                .flatMap(passwordHash -> {
                     UserEntity entity = new UserEntity();
                     entity.setId(UUID.randomUUID());
                     entity.setNewEntity(true);
                     entity.setUsername(request.username());
                     entity.setEmail(request.email());
-                    entity.setPasswordHash(passwordEncoder.encode(request.password()));
+                    entity.setPasswordHash(passwordHash);
                     entity.setRoles("ROLE_USER");
                     entity.setCreatedAt(Instant.now());
                     return userRepository.save(entity);
                 })
+                .onErrorMap(DataIntegrityViolationException.class, AuthService::duplicateUserError)
                 .flatMap(saved -> jwtService.issueToken(saved.getUsername(), List.of(saved.getRoles())));
     }
 
+    private Mono<Void> rejectTaken(RegisterRequest request) {
+        return userRepository.findTakenNames(request.username(), request.email())
+                .collectList()
+                .flatMap(taken -> {
+                    if (taken.stream().anyMatch(TakenName::usernameTaken)) {
+                        return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Username already in use"));
+                    }
+                    if (taken.stream().anyMatch(TakenName::emailTaken)) {
+                        return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Email already in use"));
+                    }
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Maps a violation of the users table's named unique constraints to its message; any other integrity
+     * violation is passed on unchanged.
+     */
+    private static Throwable duplicateUserError(DataIntegrityViolationException error) {
+        String constraint = violatedConstraint(error);
+        if (USERNAME_CONSTRAINT.equalsIgnoreCase(constraint)) {
+            return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Username already in use");
+        }
+        if (EMAIL_CONSTRAINT.equalsIgnoreCase(constraint)) {
+            return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Email already in use");
+        }
+        return error;
+    }
+
+    private static String violatedConstraint(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof PostgresqlException postgres) {
+                return postgres.getErrorDetails().getConstraintName().orElse(null);
+            }
+        }
+        // H2 names the constraint only in its message, as the prefix of the index backing it.
+        String message = String.valueOf(error.getMessage()).toLowerCase(Locale.ROOT);
+        for (String constraint : List.of(USERNAME_CONSTRAINT, EMAIL_CONSTRAINT)) {
+            if (message.contains(constraint + "_index")) {
+                return constraint;
+            }
+        }
+        return null;
+    }
+
     public Mono<BasicResponse> initiateReset(String email) {
         String genericMessage = "If an account exists for this email, you'll receive reset instructions.";
         return userRepository.findByEmail(email)
@@ -150,9 +183,13 @@ public class AuthService {
                                 if (user.getEmail() == null || !user.getEmail().equalsIgnoreCase(request.email())) {
                                     return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid or expired reset request"));
                                 }
-                                user.setPasswordHash(passwordEncoder.encode(request.newPassword()));
-                                return userRepository.save(user)
+                                return passwordHasher.encode(request.newPassword())
+                                        .flatMap(passwordHash -> {
+                                            user.setPasswordHash(passwordHash);
+                                            return userRepository.save(user);
+                                        })
                                         .then(markAllResetsUsed(reset.getUserId()))
+                                        .then(loginAttemptLimiter.reset(user.getUsername()))
                                         .then(Mono.just(BasicResponse.ok("Password reset successful")));
                             });
                 });
@@ -188,11 +225,7 @@ public class AuthService {
     private Mono<ResetTokenEntity> findReusableReset(UUID userId) {
         Instant now = Instant.now();
         Instant reuseThreshold = now.minus(OTP_REUSE_WINDOW);
-        return resetTokenRepository.findByUserIdAndUsedFalse(userId)
-                .filter(reset -> reset.getExpiresAt() != null && reset.getExpiresAt().isAfter(now))
-                .filter(reset -> reset.getCreatedAt() != null && reset.getCreatedAt().isAfter(reuseThreshold))
-                .sort(Comparator.comparing(ResetTokenEntity::getCreatedAt).reversed())
-                .next();
+        return resetTokenRepository.findReusable(userId, reuseThreshold, now);
     }
 
     private Mono<BasicResponse> sendResetPayload(String email, String message, boolean useSink, ResetTokenEntity reset) {
@@ -202,10 +235,8 @@ public class AuthService {
     }
 
     private Mono<Void> deliverReset(String email, String resetUrl, String token, String otp, Instant expiresAt, boolean useSink) {
-        if (mailAvailable) {
-            return Mono.fromRunnable(() -> sendMail(email, resetUrl, otp, expiresAt))
-                    .subscribeOn(Schedulers.boundedElastic())
-                    .then();
+        if (mailDispatcher.isEnabled()) {
+            return mailDispatcher.enqueue(email, "Reset your Personal Tracker password", resetMailBody(resetUrl, otp, expiresAt));
         }
         if (useSink) {
             mailSink.record(email, token, otp, expiresAt, resetUrl);
@@ -223,12 +254,7 @@ public class AuthService {
     }
 
     private Mono<Void> markAllResetsUsed(UUID userId) {
-        return resetTokenRepository.findByUserIdAndUsedFalse(userId)
-                .flatMap(reset -> {
-                    reset.setUsed(true);
-                    return resetTokenRepository.save(reset);
-                })
-                .then();
+        return resetTokenRepository.markAllUsed(userId).then();
     }
 
     private String buildResetUrl(String email, String token) {
@@ -241,22 +267,11 @@ public class AuthService {
         return String.format("%06d", value);
     }
 
-    private void sendMail(String to, String resetUrl, String otp, Instant expiresAt) {
-        if (mailSender == null) {
-            return;
-        }
-        SimpleMailMessage message = new SimpleMailMessage();
-        if (mailFrom != null && !mailFrom.isBlank()) {
-            message.setFrom(mailFrom);
-        }
-        message.setTo(to);
-        message.setSubject("Reset your Personal Tracker password");
-        String body = "You requested a password reset.\n\n" +
+    private String resetMailBody(String resetUrl, String otp, Instant expiresAt) {
+        return "You requested a password reset.\n\n" +
                 "Reset link: " + resetUrl + "\n" +
                 "OTP: " + otp + "\n" +
                 "Expires at: " + expiresAt.toString() + "\n\n" +
                 "If you did not request this, you can ignore this email.";
-        message.setText(body);
-        mailSender.send(message);
     }
 }
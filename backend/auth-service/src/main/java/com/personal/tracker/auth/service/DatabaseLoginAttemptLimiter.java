@@ -0,0 +1,60 @@
+package com.personal.tracker.auth.service;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import com.personal.tracker.auth.repository.LoginFailureRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+/**
+ * Keeps one {@code login_failures} row per failed attempt, so every node counts the same window. An attempt
+ * is reserved by counting and inserting in one transaction under a per-username lock, so concurrent guesses
+ * from any node queue on the count and at most the lockout limit of them reach the password check.
+ */
+@Component
+@ConditionalOnProperty(name = "security.login-attempts.store", havingValue = "database", matchIfMissing = true)
+public class DatabaseLoginAttemptLimiter implements LoginAttemptLimiter {
+
+    private final LoginFailureRepository loginFailureRepository;
+    private final TransactionalOperator transactionalOperator;
+    private final Duration window;
+
+    public DatabaseLoginAttemptLimiter(LoginFailureRepository loginFailureRepository,
+            TransactionalOperator transactionalOperator,
+            @Value("${security.login-attempts.window:PT15M}") Duration window) {
+        this.loginFailureRepository = loginFailureRepository;
+        this.transactionalOperator = transactionalOperator;
+        this.window = window;
+    }
+
+    @Override
+    public Mono<Integer> reserve(String username, int limit) {
+        return transactionalOperator.transactional(Mono.defer(() -> {
+            Instant now = Instant.now();
+            return loginFailureRepository.lockUsername(username)
+                    .then(loginFailureRepository.countSince(username, now.minus(window)))
+                    .filter(failures -> failures < limit)
+                    .flatMap(failures -> loginFailureRepository.insert(username, now).thenReturn(failures.intValue() + 1));
+        }));
+    }
+
+    @Override
+    public Mono<Void> release(String username) {
+        return loginFailureRepository.deleteNewest(username).then();
+    }
+
+    @Override
+    public Mono<Void> reset(String username) {
+        return loginFailureRepository.deleteByUsername(username).then();
+    }
+
+    @Scheduled(fixedDelayString = "${security.login-attempts.purge-interval:PT5M}")
+    public Mono<Void> purgeExpired() {
+        return loginFailureRepository.deleteOlderThan(Instant.now().minus(window)).then();
+    }
+}
@@ -1,21 +1,59 @@
 package com.personal.tracker.auth.service;
 
 import java.time.Instant;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+/**
+ * Keeps the last {@code mail.sink.capacity} reset hints in a ring buffer, indexed by email so parallel reset
+ * flows each find their own OTP. Writers claim slots with an atomic counter and never block each other; a hint
+ * leaves the index when its slot is overwritten, so memory stays bounded by the capacity.
+ */
 @Component
 public class DevMailSink {
 
     public record ResetHint(String email, String token, String otp, Instant expiresAt, String resetUrl) {}
 
-    private final AtomicReference<ResetHint> last = new AtomicReference<>();
+    private record Entry(long sequence, String key, ResetHint hint) {}
+
+    private final AtomicReferenceArray<Entry> slots;
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<String, Entry> byEmail = new ConcurrentHashMap<>();
+
+    public DevMailSink(@Value("${mail.sink.capacity:10000}") int capacity) {
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
 
     public void record(String email, String token, String otp, Instant expiresAt, String resetUrl) {
-        last.set(new ResetHint(email, token, otp, expiresAt, resetUrl));
+        long next = sequence.getAndIncrement();
+        Entry entry = new Entry(next, key(email), new ResetHint(email, token, otp, expiresAt, resetUrl));
+        byEmail.merge(entry.key(), entry, (current, fresh) -> fresh.sequence() > current.sequence() ? fresh : current);
+        Entry evicted = slots.getAndSet((int) (next % slots.length()), entry);
+        if (evicted != null) {
+            byEmail.remove(evicted.key(), evicted);
+        }
+    }
+
+    /**
+     * The most recent hint for {@code email} that is still in the buffer, or null.
+     */
+    public ResetHint find(String email) {
+        Entry entry = byEmail.get(key(email));
+        return entry != null ? entry.hint() : null;
     }
 
     public ResetHint last() {
-        return last.get();
+        long latest = sequence.get() - 1;
+        Entry entry = latest >= 0 ? slots.get((int) (latest % slots.length())) : null;
+        return entry != null ? entry.hint() : null;
+    }
+
+    private static String key(String email) {
+        return email.toLowerCase(Locale.ROOT);
     }
 }
@@ -0,0 +1,98 @@
+package com.personal.tracker.auth.service;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Single-node limiter for development and the in-memory profile. Usernames hash onto a fixed number of
+ * stripes, each an access-ordered map guarded by its own lock, so logins for different users rarely contend.
+ * Timestamps outside the window are dropped on access, and each stripe evicts its least recently used user
+ * beyond {@code security.login-attempts.max-users / STRIPES}, so memory stays bounded under credential
+ * stuffing.
+ */
+@Component
+@ConditionalOnProperty(name = "security.login-attempts.store", havingValue = "memory")
+public class InMemoryLoginAttemptLimiter implements LoginAttemptLimiter {
+
+    private static final int STRIPES = 64;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final long windowNanos;
+
+    public InMemoryLoginAttemptLimiter(@Value("${security.login-attempts.window:PT15M}") Duration window,
+            @Value("${security.login-attempts.max-users:100000}") int maxUsers) {
+        this.windowNanos = window.toNanos();
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(Math.max(1, maxUsers / STRIPES));
+        }
+    }
+
+    @Override
+    public Mono<Integer> reserve(String username, int limit) {
+        return Mono.fromSupplier(() -> stripeOf(username).reserve(username, System.nanoTime(), limit))
+                .filter(failures -> failures > 0);
+    }
+
+    @Override
+    public Mono<Void> release(String username) {
+        return Mono.fromRunnable(() -> stripeOf(username).release(username));
+    }
+
+    @Override
+    public Mono<Void> reset(String username) {
+        return Mono.fromRunnable(() -> stripeOf(username).remove(username));
+    }
+
+    private Stripe stripeOf(String username) {
+        int hash = username.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+
+    private final class Stripe {
+
+        private final Map<String, ArrayDeque<Long>> failuresByUser;
+
+        Stripe(int capacity) {
+            this.failuresByUser = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, ArrayDeque<Long>> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+
+        /**
+         * Drops failures outside the window and records one more, returning the new count, or 0 when
+         * {@code limit} failures are already there.
+         */
+        synchronized int reserve(String username, long now, int limit) {
+            ArrayDeque<Long> failures = failuresByUser.computeIfAbsent(username, ignored -> new ArrayDeque<>());
+            while (!failures.isEmpty() && now - failures.peekFirst() >= windowNanos) {
+                failures.pollFirst();
+            }
+            if (failures.size() >= limit) {
+                return 0;
+            }
+            failures.addLast(now);
+            return failures.size();
+        }
+
+        synchronized void release(String username) {
+            ArrayDeque<Long> failures = failuresByUser.get(username);
+            if (failures != null) {
+                failures.pollLast();
+            }
+        }
+
+        synchronized void remove(String username) {
+            failuresByUser.remove(username);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.personal.tracker.auth.service;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Counts failed logins per username over a sliding window ({@code security.login-attempts.window}).
+ * {@code security.login-attempts.store} picks the implementation: {@code database} (default) shares counts
+ * between auth-service nodes through Postgres, {@code memory} keeps them in a bounded per-node map.
+ */
+public interface LoginAttemptLimiter {
+
+    /**
+     * Reserves an attempt before the password is checked by recording it as a failure up front, unless
+     * {@code limit} failures already fall within the window. Check and record are atomic per username, so
+     * concurrent guesses cannot all slip under the limit. Emits the failures within the window, this one
+     * included, or nothing when the user is locked out.
+     */
+    Mono<Integer> reserve(String username, int limit);
+
+    /**
+     * Gives back one reserved attempt whose password was never checked, such as one turned away by a full
+     * hashing pool.
+     */
+    Mono<Void> release(String username);
+
+    /**
+     * Clears the user's failures, including an attempt reserved for a password that turned out to match.
+     */
+    Mono<Void> reset(String username);
+}
@@ -0,0 +1,195 @@
+package com.personal.tracker.auth.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import com.personal.tracker.auth.domain.OutboundMail;
+import com.personal.tracker.auth.repository.MailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Delivers mail queued in {@code mail_outbox}, so callers only wait for an INSERT instead of an SMTP round
+ * trip. Each poll drains due rows through up to {@code mail.outbox.connections} concurrent workers; a worker
+ * claims a batch and sends it over a single SMTP connection. Failed messages are retried with exponential
+ * backoff from {@code retry-backoff} up to {@code max-backoff} and abandoned as FAILED after
+ * {@code max-attempts}. Publishes {@code auth.mail.sent} and {@code auth.mail.failed} (by outcome).
+ */
+@Component
+public class MailDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(MailDispatcher.class);
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private record Failure(OutboundMail mail, String error) {
+    }
+
+    private record Outcome(List<UUID> sent, List<Failure> failed) {
+    }
+
+    private final MailOutboxRepository mailOutboxRepository;
+    private final JavaMailSender mailSender;
+    private final boolean enabled;
+    private final String mailFrom;
+    private final int batchSize;
+    private final int connections;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final Duration maxBackoff;
+    private final Duration lease;
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter abandoned;
+
+    public MailDispatcher(MailOutboxRepository mailOutboxRepository,
+            ObjectProvider<JavaMailSender> mailSenderProvider,
+            MeterRegistry meterRegistry,
+            @Value("${mail.smtp.host:}") String smtpHost,
+            @Value("${mail.smtp.from:}") String smtpFrom,
+            @Value("${mail.outbox.batch-size:50}") int batchSize,
+            @Value("${mail.outbox.connections:2}") int connections,
+            @Value("${mail.outbox.max-attempts:8}") int maxAttempts,
+            @Value("${mail.outbox.retry-backoff:PT30S}") Duration retryBackoff,
+            @Value("${mail.outbox.max-backoff:PT1H}") Duration maxBackoff,
+            @Value("${mail.outbox.lease:PT5M}") Duration lease) {
+        this.mailOutboxRepository = mailOutboxRepository;
+        this.mailSender = mailSenderProvider.getIfAvailable();
+        boolean hasHost = smtpHost != null && !smtpHost.isBlank();
+        this.enabled = hasHost && this.mailSender != null;
+        this.mailFrom = smtpFrom != null && !smtpFrom.isBlank() ? smtpFrom : smtpHost;
+        this.batchSize = batchSize;
+        this.connections = connections;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+        this.maxBackoff = maxBackoff;
+        this.lease = lease;
+        this.sent = Counter.builder("auth.mail.sent").register(meterRegistry);
+        this.retried = Counter.builder("auth.mail.failed").tag("outcome", "retry").register(meterRegistry);
+        this.abandoned = Counter.builder("auth.mail.failed").tag("outcome", "abandoned").register(meterRegistry);
+    }
+
+    /**
+     * Whether SMTP is configured; when it is not, nothing is queued or sent.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Mono<Void> enqueue(String to, String subject, String body) {
+        return mailOutboxRepository.insert(new OutboundMail(UUID.randomUUID(), to, subject, body, 0), Instant.now()).then();
+    }
+
+    /**
+     * Sends everything that is due and returns how many messages were delivered.
+     */
+    @Scheduled(fixedDelayString = "${mail.outbox.poll-interval:PT2S}")
+    public Mono<Long> dispatch() {
+        if (!enabled) {
+            return Mono.just(0L);
+        }
+        return Flux.range(0, connections)
+                .flatMap(worker -> sendBatch()
+                        .expand(batch -> batch.sent().size() + batch.failed().size() < batchSize ? Mono.empty() : sendBatch()))
+                .reduce(0L, (delivered, batch) -> delivered + batch.sent().size())
+                .doOnError(error -> log.warn("Mail dispatch failed", error))
+                .onErrorReturn(0L);
+    }
+
+    private Mono<Outcome> sendBatch() {
+        Instant now = Instant.now();
+        return mailOutboxRepository.claimDue(now, now.plus(lease), batchSize)
+                .collectList()
+                .filter(batch -> !batch.isEmpty())
+                .flatMap(batch -> Mono.fromCallable(() -> send(batch)).subscribeOn(Schedulers.boundedElastic()))
+                .flatMap(outcome -> record(outcome).thenReturn(outcome));
+    }
+
+    private Outcome send(List<OutboundMail> batch) {
+        Map<SimpleMailMessage, OutboundMail> messages = new IdentityHashMap<>();
+        for (OutboundMail mail : batch) {
+            messages.put(toMessage(mail), mail);
+        }
+        List<Failure> failed = new ArrayList<>();
+        try {
+            // JavaMailSender opens one connection per call and reuses it for every message passed in.
+            mailSender.send(messages.keySet().toArray(SimpleMailMessage[]::new));
+        } catch (MailSendException e) {
+            if (e.getFailedMessages().isEmpty()) {
+                batch.forEach(mail -> failed.add(new Failure(mail, describe(e))));
+            }
+            e.getFailedMessages().forEach((message, error) -> {
+                OutboundMail mail = messages.get(message);
+                if (mail != null) {
+                    failed.add(new Failure(mail, describe(error)));
+                }
+            });
+        } catch (MailException e) {
+            batch.forEach(mail -> failed.add(new Failure(mail, describe(e))));
+        }
+        List<UUID> delivered = new ArrayList<>(batch.size());
+        for (OutboundMail mail : batch) {
+            if (failed.stream().noneMatch(failure -> failure.mail() == mail)) {
+                delivered.add(mail.id());
+            }
+        }
+        return new Outcome(delivered, failed);
+    }
+
+    private Mono<Void> record(Outcome outcome) {
+        Mono<Long> deleteSent = outcome.sent().isEmpty() ? Mono.just(0L) : mailOutboxRepository.deleteAll(outcome.sent());
+        Instant now = Instant.now();
+        return deleteSent
+                .doOnNext(ignored -> sent.increment(outcome.sent().size()))
+                .thenMany(Flux.fromIterable(outcome.failed()).concatMap(failure -> {
+                    OutboundMail mail = failure.mail();
+                    int attempts = mail.attempts() + 1;
+                    if (attempts >= maxAttempts) {
+                        log.warn("Giving up on mail {} to {} after {} attempts: {}", mail.id(), mail.recipient(), attempts, failure.error());
+                        abandoned.increment();
+                        return mailOutboxRepository.markFailed(mail.id(), attempts, failure.error());
+                    }
+                    retried.increment();
+                    return mailOutboxRepository.reschedule(mail.id(), attempts, now.plus(backoff(attempts)), failure.error());
+                }))
+                .then();
+    }
+
+    Duration backoff(int attempts) {
+        Duration delay = retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 30));
+        return delay.compareTo(maxBackoff) > 0 || delay.isNegative() ? maxBackoff : delay;
+    }
+
+    private SimpleMailMessage toMessage(OutboundMail mail) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        if (mailFrom != null && !mailFrom.isBlank()) {
+            message.setFrom(mailFrom);
+        }
+        message.setTo(mail.recipient());
+        message.setSubject(mail.subject());
+        message.setText(mail.body());
+        return message;
+    }
+
+    private static String describe(Exception error) {
+        String message = String.valueOf(error.getMessage());
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+}
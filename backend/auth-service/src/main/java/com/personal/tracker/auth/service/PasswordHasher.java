@@ -0,0 +1,93 @@
+package com.personal.tracker.auth.service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+/**
+ * Runs bcrypt off the event loop on a fixed pool sized to the CPUs, since hashing is CPU-bound and more
+ * threads (virtual ones included) would only add contention. At most {@code queue-capacity} hashes wait for
+ * a thread; beyond that callers get 429 instead of piling up latency for everyone. Publishes
+ * {@code auth.password.hash} (time on a thread, by operation), {@code auth.password.queue.wait},
+ * {@code auth.password.queue.depth} and {@code auth.password.rejected}.
+ */
+@Component
+public class PasswordHasher {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Timer queueWait;
+    private final Counter rejected;
+
+    public PasswordHasher(PasswordEncoder passwordEncoder,
+            MeterRegistry meterRegistry,
+            @Value("${security.password-hashing.threads:0}") int threads,
+            @Value("${security.password-hashing.queue-capacity:64}") int queueCapacity) {
+        this.passwordEncoder = passwordEncoder;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.encodeTimer = Timer.builder("auth.password.hash").tag("operation", "encode").register(meterRegistry);
+        this.matchesTimer = Timer.builder("auth.password.hash").tag("operation", "matches").register(meterRegistry);
+        this.queueWait = Timer.builder("auth.password.queue.wait").register(meterRegistry);
+        this.rejected = Counter.builder("auth.password.rejected").register(meterRegistry);
+        Gauge.builder("auth.password.queue.depth", executor, pool -> pool.getQueue().size()).register(meterRegistry);
+    }
+
+    public Mono<String> encode(String rawPassword) {
+        return submit(encodeTimer, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    public Mono<Boolean> matches(String rawPassword, String passwordHash) {
+        return submit(matchesTimer, () -> passwordEncoder.matches(rawPassword, passwordHash));
+    }
+
+    private <T> Mono<T> submit(Timer timer, Callable<T> hashing) {
+        return Mono.create(sink -> {
+            long queuedAt = System.nanoTime();
+            try {
+                executor.execute(() -> {
+                    long startedAt = System.nanoTime();
+                    queueWait.record(startedAt - queuedAt, TimeUnit.NANOSECONDS);
+                    try {
+                        sink.success(hashing.call());
+                    } catch (Exception e) {
+                        sink.error(e);
+                    } finally {
+                        timer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                rejected.increment();
+                sink.error(new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Server busy, please retry shortly."));
+            }
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,43 @@
+package com.personal.tracker.auth.service;
+
+import java.time.Instant;
+
+import com.personal.tracker.auth.repository.ResetTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Deletes used and expired password resets, which would otherwise accumulate forever. Deletes run in batches
+ * of {@code security.reset.purge-batch-size} rows so a large backlog never holds locks for long.
+ */
+@Component
+public class ResetTokenPurger {
+
+    private static final Logger log = LoggerFactory.getLogger(ResetTokenPurger.class);
+
+    private final ResetTokenRepository resetTokenRepository;
+    private final int batchSize;
+
+    public ResetTokenPurger(ResetTokenRepository resetTokenRepository,
+            @Value("${security.reset.purge-batch-size:1000}") int batchSize) {
+        this.resetTokenRepository = resetTokenRepository;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${security.reset.purge-interval:PT1H}")
+    public Mono<Long> purge() {
+        Instant now = Instant.now();
+        return resetTokenRepository.deleteSpentBatch(now, batchSize)
+                .expand(deleted -> deleted < batchSize ? Mono.empty() : resetTokenRepository.deleteSpentBatch(now, batchSize))
+                .reduce(0L, Long::sum)
+                .doOnNext(deleted -> {
+                    if (deleted > 0) {
+                        log.info("Purged {} used or expired password resets", deleted);
+                    }
+                });
+    }
+}
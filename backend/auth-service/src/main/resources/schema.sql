@@ -1,14 +1,17 @@
 CREATE TABLE IF NOT EXISTS users (
     id UUID PRIMARY KEY,
-    username VARCHAR(100) NOT NULL UNIQUE,
-    email VARCHAR(200) NOT NULL UNIQUE,
+    username VARCHAR(100) NOT NULL CONSTRAINT users_username_key UNIQUE,
+    email VARCHAR(200) NOT NULL CONSTRAINT users_email_key UNIQUE,
     password_hash VARCHAR(255) NOT NULL,
     roles TEXT NOT NULL,
     created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW()
 );
 
-CREATE INDEX IF NOT EXISTS idx_users_username ON users(username);
-CREATE INDEX IF NOT EXISTS idx_users_email ON users(email);
+-- The UNIQUE constraints already index username and email; extra copies only slowed down inserts.
+-- Registration maps violations to messages by these constraint names, which match the names Postgres
+-- generated for the formerly unnamed constraints, so existing databases need no change.
+DROP INDEX IF EXISTS idx_users_username;
+DROP INDEX IF EXISTS idx_users_email;
 
 CREATE TABLE IF NOT EXISTS password_resets (
     id UUID PRIMARY KEY,
@@ -22,4 +25,34 @@ CREATE TABLE IF NOT EXISTS password_resets (
 
 CREATE INDEX IF NOT EXISTS idx_password_resets_token ON password_resets(token);
 CREATE INDEX IF NOT EXISTS idx_password_resets_otp ON password_resets(otp);
-CREATE INDEX IF NOT EXISTS idx_password_resets_user ON password_resets(user_id);
+-- Serves the reusable-reset lookup (newest unused reset per user) and the bulk mark-used update.
+CREATE INDEX IF NOT EXISTS idx_password_resets_user_created ON password_resets(user_id, used, created_at DESC);
+DROP INDEX IF EXISTS idx_password_resets_user;
+
+-- Failed logins within the lockout window, shared by all auth-service nodes. Rows older than the window
+-- are purged on a schedule.
+CREATE TABLE IF NOT EXISTS login_failures (
+    username VARCHAR(100) NOT NULL,
+    failed_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_login_failures_user ON login_failures(username, failed_at);
+
+-- Outbound mail waiting for the dispatcher. Delivered rows are deleted; rows that run out of attempts stay
+-- behind as FAILED. A dispatcher claims due rows by stamping its claim_id and pushing next_attempt_at out by
+-- a lease, so nodes never send the same row twice and a crashed node's claims become due again.
+CREATE TABLE IF NOT EXISTS mail_outbox (
+    id UUID PRIMARY KEY,
+    recipient VARCHAR(200) NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    body TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    claim_id UUID,
+    last_error TEXT,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_mail_outbox_due ON mail_outbox(status, next_attempt_at);
+CREATE INDEX IF NOT EXISTS idx_mail_outbox_claim ON mail_outbox(claim_id);
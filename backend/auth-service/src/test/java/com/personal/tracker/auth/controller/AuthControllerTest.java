@@ -2,15 +2,27 @@ package com.personal.tracker.auth.controller;
 
 import com.personal.tracker.auth.domain.UserEntity;
 import com.personal.tracker.auth.model.AuthRequest;
+import com.personal.tracker.auth.model.BasicResponse;
+import com.personal.tracker.auth.model.ForgotPasswordRequest;
+import com.personal.tracker.auth.model.RegisterRequest;
 import com.personal.tracker.auth.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.reactive.server.WebTestClient;
@@ -29,12 +41,20 @@ class AuthControllerTest {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @BeforeEach
     void seedUser() {
         UserEntity user = new UserEntity(UUID.randomUUID(), "demo", passwordEncoder.encode("password"), "ROLE_USER", Instant.now());
+        user.setEmail("demo@example.com");
         user.setNewEntity(true);
 
-        userRepository.deleteAll()
+        databaseClient.sql("DELETE FROM login_failures").then()
+            .then(userRepository.deleteAll())
             .then(userRepository.save(user))
             .block();
     }
@@ -61,4 +81,144 @@ class AuthControllerTest {
                 .exchange()
                 .expectStatus().isUnauthorized();
     }
+
+    @Test
+    void repeatedFailuresLockTheAccountEvenForTheRightPassword() {
+        for (int attempt = 1; attempt < 5; attempt++) {
+            webTestClient.post()
+                    .uri("/api/auth/login")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(new AuthRequest("demo", "wrong"))
+                    .exchange()
+                    .expectStatus().isUnauthorized()
+                    .expectBody()
+                    .jsonPath("$.message").isEqualTo("Incorrect password. " + (5 - attempt) + " retries remaining.");
+        }
+        webTestClient.post()
+                .uri("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new AuthRequest("demo", "wrong"))
+                .exchange()
+                .expectStatus().isEqualTo(429);
+
+        webTestClient.post()
+                .uri("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new AuthRequest("demo", "password"))
+                .exchange()
+                .expectStatus().isEqualTo(429);
+    }
+
+    @Test
+    void concurrentBadLoginsReachTheHasherAtMostLimitTimes() throws Exception {
+        double checked = passwordChecks();
+        int attempts = 20;
+        ExecutorService executor = Executors.newFixedThreadPool(attempts);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> statuses = new ArrayList<>();
+        try {
+            for (int i = 0; i < attempts; i++) {
+                statuses.add(executor.submit(() -> {
+                    start.await();
+                    return webTestClient.post()
+                            .uri("/api/auth/login")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .bodyValue(new AuthRequest("demo", "wrong"))
+                            .exchange()
+                            .returnResult(Void.class)
+                            .getStatus()
+                            .value();
+                }));
+            }
+            start.countDown();
+            for (Future<Integer> status : statuses) {
+                int code = status.get(30, TimeUnit.SECONDS);
+                if (code != 401 && code != 429) {
+                    throw new AssertionError("Expected every bad login to be rejected but got " + code);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Long failures = databaseClient.sql("SELECT COUNT(*) AS failures FROM login_failures WHERE username = 'demo'")
+                .map(row -> row.get("failures", Long.class))
+                .one()
+                .block();
+        if (failures == null || failures != 5) {
+            throw new AssertionError("Expected exactly the limit of 5 attempts to be recorded but found " + failures);
+        }
+        if (passwordChecks() - checked > 5) {
+            throw new AssertionError("Expected at most 5 password checks but the hasher ran " + (passwordChecks() - checked));
+        }
+    }
+
+    @Test
+    void registerRejectsTakenUsernameAndEmail() {
+        double encoded = passwordEncodes();
+        webTestClient.post()
+                .uri("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new RegisterRequest("newcomer", "newcomer@example.com", "Str0ng!Pass"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.token").isNotEmpty();
+
+        webTestClient.post()
+                .uri("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new RegisterRequest("demo", "other@example.com", "Str0ng!Pass"))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Username already in use");
+
+        webTestClient.post()
+                .uri("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new RegisterRequest("someone-else", "demo@example.com", "Str0ng!Pass"))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Email already in use");
+        if (passwordEncodes() - encoded > 1) {
+            throw new AssertionError("Expected taken names to be rejected before the password is hashed");
+        }
+    }
+
+    @Test
+    void capturedResetMailCanBeLookedUpByEmail() {
+        String otp = webTestClient.post()
+                .uri("/api/auth/forgot")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new ForgotPasswordRequest("demo@example.com"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(BasicResponse.class)
+                .returnResult()
+                .getResponseBody()
+                .otp();
+
+        webTestClient.get()
+                .uri(uri -> uri.path("/api/auth/dev/mail").queryParam("email", "Demo@Example.com").build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.email").isEqualTo("demo@example.com")
+                .jsonPath("$.otp").isEqualTo(otp);
+
+        webTestClient.get()
+                .uri(uri -> uri.path("/api/auth/dev/mail").queryParam("email", "nobody@example.com").build())
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    private double passwordChecks() {
+        return meterRegistry.get("auth.password.hash").tag("operation", "matches").timer().count();
+    }
+
+    private double passwordEncodes() {
+        return meterRegistry.get("auth.password.hash").tag("operation", "encode").timer().count();
+    }
 }
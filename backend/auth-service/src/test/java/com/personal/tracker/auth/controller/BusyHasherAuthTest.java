@@ -0,0 +1,142 @@
+package com.personal.tracker.auth.controller;
+
+import com.personal.tracker.auth.domain.UserEntity;
+import com.personal.tracker.auth.model.AuthRequest;
+import com.personal.tracker.auth.model.RegisterRequest;
+import com.personal.tracker.auth.repository.UserRepository;
+import com.personal.tracker.auth.service.PasswordHasher;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"security.password-hashing.threads=1", "security.password-hashing.queue-capacity=1"})
+@AutoConfigureWebTestClient
+@ActiveProfiles("test")
+class BusyHasherAuthTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void seedUser() {
+        UserEntity user = new UserEntity(UUID.randomUUID(), "demo", passwordEncoder.encode("password"), "ROLE_USER", Instant.now());
+        user.setEmail("demo@example.com");
+        user.setNewEntity(true);
+
+        databaseClient.sql("DELETE FROM login_failures").then()
+            .then(userRepository.deleteAll())
+            .then(userRepository.save(user))
+            .block();
+    }
+
+    @Test
+    void loginsTurnedAwayByABusyHasherDoNotCountAsFailures() {
+        // Two slow checks hold the single hashing thread and its one queue slot.
+        Mono<Boolean> running = slowCheck();
+        Mono<Boolean> queued = slowCheck();
+
+        for (int attempt = 0; attempt < 6; attempt++) {
+            webTestClient.post()
+                    .uri("/api/auth/login")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(new AuthRequest("demo", "password"))
+                    .exchange()
+                    .expectStatus().isEqualTo(429)
+                    .expectBody()
+                    .jsonPath("$.message").isEqualTo("Server busy, please retry shortly.");
+        }
+        Long failures = databaseClient.sql("SELECT COUNT(*) AS failures FROM login_failures WHERE username = 'demo'")
+                .map(row -> row.get("failures", Long.class))
+                .one()
+                .block();
+        if (failures == null || failures != 0) {
+            throw new AssertionError("Expected rejected checks to give their attempts back but found " + failures);
+        }
+
+        running.block();
+        queued.block();
+        webTestClient.post()
+                .uri("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new AuthRequest("demo", "password"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.token").isNotEmpty();
+    }
+
+    @Test
+    void registrationThatLosesTheRaceAfterThePreCheckGetsTheDuplicateMessage() throws Exception {
+        Mono<Boolean> running = slowCheck();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> registration = executor.submit(() -> webTestClient.post()
+                    .uri("/api/auth/register")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(new RegisterRequest("racer", "racer@example.com", "Str0ng!Pass"))
+                    .exchange()
+                    .expectStatus().isBadRequest()
+                    .expectBody(String.class)
+                    .returnResult()
+                    .getResponseBody());
+
+            // The pre-check has passed once the password waits for the hasher; the competing user is inserted now.
+            while (meterRegistry.get("auth.password.queue.depth").gauge().value() < 1) {
+                Thread.sleep(10);
+            }
+            UserEntity competitor = new UserEntity(UUID.randomUUID(), "racer", "unused", "ROLE_USER", Instant.now());
+            competitor.setEmail("competitor@example.com");
+            competitor.setNewEntity(true);
+            userRepository.save(competitor).block();
+
+            running.block();
+            String body = registration.get(30, TimeUnit.SECONDS);
+            if (body == null || !body.contains("Username already in use")) {
+                throw new AssertionError("Expected the unique constraint to be reported as a taken username but got " + body);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * A check against a cost-14 hash, which holds a hashing thread for about a second.
+     */
+    private Mono<Boolean> slowCheck() {
+        String slowHash = passwordEncoder.encode("slow").replace("$2a$10$", "$2a$14$");
+        Mono<Boolean> check = passwordHasher.matches("slow", slowHash).cache();
+        check.subscribe();
+        return check;
+    }
+}
@@ -0,0 +1,26 @@
+package com.personal.tracker.auth.repository;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import com.personal.tracker.auth.domain.ResetTokenEntity;
+
+public final class ResetTokenFixtures {
+
+    private ResetTokenFixtures() {
+    }
+
+    public static ResetTokenEntity save(ResetTokenRepository repository, UUID userId, Instant createdAt, Instant expiresAt,
+                                        boolean used) {
+        ResetTokenEntity entity = new ResetTokenEntity();
+        entity.setId(UUID.randomUUID());
+        entity.setNewEntity(true);
+        entity.setUserId(userId);
+        entity.setToken(UUID.randomUUID().toString());
+        entity.setOtp("654321");
+        entity.setExpiresAt(expiresAt);
+        entity.setUsed(used);
+        entity.setCreatedAt(createdAt);
+        return repository.save(entity).block();
+    }
+}
@@ -0,0 +1,100 @@
+package com.personal.tracker.auth.repository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import com.personal.tracker.auth.domain.ResetTokenEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ResetTokenRepositoryTest {
+
+    @Autowired
+    private ResetTokenRepository resetTokenRepository;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @BeforeEach
+    void clear() {
+        resetTokenRepository.deleteAll().block();
+    }
+
+    @Test
+    void findReusableReturnsTheNewestLiveReset() {
+        UUID user = UUID.randomUUID();
+        Instant now = Instant.now();
+        Instant threshold = now.minus(Duration.ofMinutes(2));
+        ResetTokenFixtures.save(resetTokenRepository, user,
+                now.minus(Duration.ofMinutes(5)), now.plus(Duration.ofMinutes(10)), false);
+        ResetTokenFixtures.save(resetTokenRepository, user, now.minusSeconds(30), now.minusSeconds(1), false);
+        ResetTokenFixtures.save(resetTokenRepository, user,
+                now.minusSeconds(10), now.plus(Duration.ofMinutes(15)), true);
+        ResetTokenEntity older = ResetTokenFixtures.save(resetTokenRepository, user,
+                now.minusSeconds(60), now.plus(Duration.ofMinutes(14)), false);
+        ResetTokenEntity newest = ResetTokenFixtures.save(resetTokenRepository, user,
+                now.minusSeconds(20), now.plus(Duration.ofMinutes(15)), false);
+
+        ResetTokenEntity found = resetTokenRepository.findReusable(user, threshold, now).block();
+        if (found == null || !found.getId().equals(newest.getId())) {
+            throw new AssertionError("Expected the newest live reset but got " + (found == null ? null : found.getId()));
+        }
+
+        resetTokenRepository.deleteById(newest.getId()).block();
+        found = resetTokenRepository.findReusable(user, threshold, now).block();
+        if (found == null || !found.getId().equals(older.getId())) {
+            throw new AssertionError("Expected the next newest live reset once the newest is gone");
+        }
+        if (resetTokenRepository.findReusable(UUID.randomUUID(), threshold, now).block() != null) {
+            throw new AssertionError("Expected no reusable reset for another user");
+        }
+    }
+
+    @Test
+    void markAllUsedOnlyTouchesTheUsersUnusedResets() {
+        UUID user = UUID.randomUUID();
+        UUID otherUser = UUID.randomUUID();
+        Instant now = Instant.now();
+        ResetTokenFixtures.save(resetTokenRepository, user, now, now.plus(Duration.ofMinutes(15)), false);
+        ResetTokenFixtures.save(resetTokenRepository, user, now, now.plus(Duration.ofMinutes(15)), false);
+        ResetTokenEntity other = ResetTokenFixtures.save(resetTokenRepository, otherUser,
+                now, now.plus(Duration.ofMinutes(15)), false);
+
+        Long updated = resetTokenRepository.markAllUsed(user).block();
+        if (updated == null || updated != 2) {
+            throw new AssertionError("Expected both of the user's resets to be marked used but got " + updated);
+        }
+        if (resetTokenRepository.findAll().filter(reset -> reset.getUserId().equals(user) && !reset.isUsed()).hasElements().block()) {
+            throw new AssertionError("Expected no unused resets left for the user");
+        }
+        if (resetTokenRepository.findById(other.getId()).block().isUsed()) {
+            throw new AssertionError("Expected another user's reset to stay unused");
+        }
+    }
+
+    @Test
+    void findReusableUsesTheUserCreatedIndex() {
+        Instant now = Instant.now();
+        String plan = String.join("\n", databaseClient.sql("EXPLAIN " + ResetTokenRepository.FIND_REUSABLE)
+                .bind("userId", UUID.randomUUID())
+                .bind("createdAfter", now.minus(Duration.ofMinutes(2)))
+                .bind("now", now)
+                .map(row -> row.get(0, String.class))
+                .all()
+                .collectList()
+                .blockOptional()
+                .orElse(List.of()));
+
+        if (!plan.toLowerCase().contains("idx_password_resets_user_created")) {
+            throw new AssertionError("Expected the reusable-reset lookup to use idx_password_resets_user_created but got:\n" + plan);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.personal.tracker.auth.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+class DevMailSinkTest {
+
+    @Test
+    void parallelResetsEachFindTheirOwnHint() throws Exception {
+        DevMailSink sink = new DevMailSink(1000);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> flows = new ArrayList<>();
+            for (int i = 0; i < 800; i++) {
+                String email = "user" + i + "@example.com";
+                String otp = String.format("%06d", i);
+                flows.add(executor.submit(() -> {
+                    sink.record(email, "token-" + otp, otp, Instant.now(), "http://localhost/reset");
+                    DevMailSink.ResetHint hint = sink.find(email);
+                    if (hint == null || !otp.equals(hint.otp())) {
+                        throw new AssertionError("Expected " + email + " to find its own OTP but got " + hint);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> flow : flows) {
+                flow.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void oldestHintsAreEvictedOnceTheBufferWraps() {
+        DevMailSink sink = new DevMailSink(3);
+        for (int i = 0; i < 5; i++) {
+            sink.record("user" + i + "@example.com", "token", String.valueOf(i), Instant.now(), "url");
+        }
+        if (sink.find("user0@example.com") != null || sink.find("user1@example.com") != null) {
+            throw new AssertionError("Expected the two oldest hints to be evicted");
+        }
+        if (!"4".equals(sink.find("USER4@example.com").otp()) || !"4".equals(sink.last().otp())) {
+            throw new AssertionError("Expected the newest hint to be found by email regardless of case");
+        }
+
+        sink.record("user2@example.com", "token", "again", Instant.now(), "url");
+        sink.record("user5@example.com", "token", "5", Instant.now(), "url");
+        if (!"again".equals(sink.find("user2@example.com").otp())) {
+            throw new AssertionError("Expected a newer hint to survive eviction of the same email's older slot");
+        }
+    }
+}
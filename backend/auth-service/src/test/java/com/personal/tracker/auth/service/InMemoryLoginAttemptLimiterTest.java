@@ -0,0 +1,72 @@
+package com.personal.tracker.auth.service;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+class InMemoryLoginAttemptLimiterTest {
+
+    @Test
+    void failuresSlideOutOfTheWindow() throws InterruptedException {
+        InMemoryLoginAttemptLimiter limiter = new InMemoryLoginAttemptLimiter(Duration.ofMillis(300), 1000);
+        limiter.reserve("alice", 5).block();
+        Integer failures = limiter.reserve("alice", 5).block();
+        if (failures == null || failures != 2) {
+            throw new AssertionError("Expected two failures within the window but got " + failures);
+        }
+        if (limiter.reserve("bob", 5).block() != 1) {
+            throw new AssertionError("Expected failures to be counted per user");
+        }
+
+        Thread.sleep(400);
+        if (limiter.reserve("alice", 5).block() != 1) {
+            throw new AssertionError("Expected failures older than the window to be dropped");
+        }
+    }
+
+    @Test
+    void reservationsStopAtTheLimit() {
+        InMemoryLoginAttemptLimiter limiter = new InMemoryLoginAttemptLimiter(Duration.ofMinutes(15), 1000);
+        for (int attempt = 1; attempt <= 3; attempt++) {
+            Integer failures = limiter.reserve("alice", 3).block();
+            if (failures == null || failures != attempt) {
+                throw new AssertionError("Expected attempt " + attempt + " to be reserved but got " + failures);
+            }
+        }
+        if (limiter.reserve("alice", 3).block() != null || limiter.reserve("alice", 3).block() != null) {
+            throw new AssertionError("Expected no reservation beyond the limit");
+        }
+    }
+
+    @Test
+    void releaseGivesBackTheNewestReservation() {
+        InMemoryLoginAttemptLimiter limiter = new InMemoryLoginAttemptLimiter(Duration.ofMinutes(15), 1000);
+        limiter.reserve("alice", 2).block();
+        limiter.reserve("alice", 2).block();
+        limiter.release("alice").block();
+        Integer failures = limiter.reserve("alice", 2).block();
+        if (failures == null || failures != 2) {
+            throw new AssertionError("Expected the released attempt to be reservable again but got " + failures);
+        }
+    }
+
+    @Test
+    void resetClearsFailuresAndStripesStayBounded() {
+        InMemoryLoginAttemptLimiter limiter = new InMemoryLoginAttemptLimiter(Duration.ofMinutes(15), 64);
+        limiter.reserve("alice", 5).block();
+        limiter.reset("alice").block();
+        if (limiter.reserve("alice", 1).block() == null) {
+            throw new AssertionError("Expected reset to clear the user's failures");
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            limiter.reserve("user-" + i, 1).block();
+        }
+        if (limiter.reserve("user-9999", 1).block() != null) {
+            throw new AssertionError("Expected the most recent user to be remembered");
+        }
+        if (limiter.reserve("user-0", 1).block() == null) {
+            throw new AssertionError("Expected the least recently used users to be evicted");
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.personal.tracker.auth.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetup;
+import com.personal.tracker.auth.domain.UserEntity;
+import com.personal.tracker.auth.model.ForgotPasswordRequest;
+import com.personal.tracker.auth.repository.UserRepository;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.TestSocketUtils;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "mail.sink.enabled=false",
+        "mail.outbox.max-attempts=2",
+        "spring.mail.properties.mail.smtp.auth=false"
+})
+@AutoConfigureWebTestClient
+@ActiveProfiles("test")
+class MailDispatcherTest {
+
+    private static final int SMTP_PORT = TestSocketUtils.findAvailableTcpPort();
+
+    @DynamicPropertySource
+    static void smtp(DynamicPropertyRegistry registry) {
+        registry.add("spring.mail.host", () -> "localhost");
+        registry.add("spring.mail.port", () -> SMTP_PORT);
+        registry.add("mail.smtp.host", () -> "localhost");
+        registry.add("mail.smtp.from", () -> "tracker@example.com");
+    }
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private MailDispatcher mailDispatcher;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    private final GreenMail smtpServer = new GreenMail(new ServerSetup(SMTP_PORT, "localhost", ServerSetup.PROTOCOL_SMTP));
+
+    @BeforeEach
+    void clear() {
+        databaseClient.sql("DELETE FROM mail_outbox").then().block();
+    }
+
+    @AfterEach
+    void stopServer() {
+        smtpServer.stop();
+    }
+
+    @Test
+    void forgotPasswordEnqueuesMailForTheDispatcher() throws Exception {
+        UserEntity user = new UserEntity(UUID.randomUUID(), "mail-user", "hash", "ROLE_USER", Instant.now());
+        user.setEmail("mail-user@example.com");
+        user.setNewEntity(true);
+        userRepository.deleteAll().then(userRepository.save(user)).block();
+        smtpServer.start();
+
+        webTestClient.post()
+                .uri("/api/auth/forgot")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new ForgotPasswordRequest("mail-user@example.com"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.otp").doesNotExist();
+        if (queued() != 1 || smtpServer.getReceivedMessages().length != 0) {
+            throw new AssertionError("Expected the reset mail to be queued, not sent inline");
+        }
+        webTestClient.get()
+                .uri(uri -> uri.path("/api/auth/dev/mail").queryParam("email", "mail-user@example.com").build())
+                .exchange()
+                .expectStatus().isNotFound();
+
+        Long delivered = mailDispatcher.dispatch().block();
+        if (delivered == null || delivered != 1) {
+            throw new AssertionError("Expected one mail to be delivered but got " + delivered);
+        }
+        MimeMessage[] received = smtpServer.getReceivedMessages();
+        if (received.length != 1 || !received[0].getAllRecipients()[0].toString().equals("mail-user@example.com")) {
+            throw new AssertionError("Expected the reset mail at the fake SMTP server");
+        }
+        if (queued() != 0) {
+            throw new AssertionError("Expected delivered mail to leave the outbox");
+        }
+    }
+
+    @Test
+    void failedDeliveryIsRetriedWithBackoffThenAbandoned() {
+        mailDispatcher.enqueue("retry@example.com", "subject", "body").block();
+
+        mailDispatcher.dispatch().block();
+        Instant nextAttemptAt = databaseClient.sql("SELECT next_attempt_at FROM mail_outbox WHERE status = 'PENDING' AND attempts = 1")
+                .map((row, metadata) -> row.get("next_attempt_at", Instant.class))
+                .one()
+                .block();
+        if (nextAttemptAt == null || nextAttemptAt.isBefore(Instant.now().plus(Duration.ofSeconds(20)))) {
+            throw new AssertionError("Expected the failed mail to be rescheduled after a backoff but got " + nextAttemptAt);
+        }
+        if (mailDispatcher.dispatch().block() != 0 || attempts() != 1) {
+            throw new AssertionError("Expected no retry before the backoff elapses");
+        }
+
+        makeDue();
+        mailDispatcher.dispatch().block();
+        String status = databaseClient.sql("SELECT status FROM mail_outbox")
+                .map((row, metadata) -> row.get("status", String.class))
+                .one()
+                .block();
+        if (!"FAILED".equals(status) || attempts() != 2) {
+            throw new AssertionError("Expected the mail to be abandoned after two attempts but got " + status);
+        }
+    }
+
+    @Test
+    void retriedMailIsDeliveredOnceTheServerIsBack() {
+        mailDispatcher.enqueue("later@example.com", "subject", "body").block();
+        mailDispatcher.dispatch().block();
+        if (attempts() != 1) {
+            throw new AssertionError("Expected the first attempt to fail without an SMTP server");
+        }
+
+        smtpServer.start();
+        makeDue();
+        if (mailDispatcher.dispatch().block() != 1 || smtpServer.getReceivedMessages().length != 1 || queued() != 0) {
+            throw new AssertionError("Expected the retry to deliver the mail");
+        }
+    }
+
+    @Test
+    void backoffDoublesUpToTheCap() {
+        if (!mailDispatcher.backoff(1).equals(Duration.ofSeconds(30))
+                || !mailDispatcher.backoff(3).equals(Duration.ofMinutes(2))
+                || !mailDispatcher.backoff(40).equals(Duration.ofHours(1))) {
+            throw new AssertionError("Expected exponential backoff capped at an hour");
+        }
+    }
+
+    private long queued() {
+        return databaseClient.sql("SELECT COUNT(*) AS queued FROM mail_outbox")
+                .map((row, metadata) -> row.get("queued", Long.class))
+                .one()
+                .block();
+    }
+
+    private int attempts() {
+        return databaseClient.sql("SELECT attempts FROM mail_outbox")
+                .map((row, metadata) -> row.get("attempts", Integer.class))
+                .one()
+                .block();
+    }
+
+    private void makeDue() {
+        databaseClient.sql("UPDATE mail_outbox SET next_attempt_at = :now")
+                .bind("now", Instant.now().minusSeconds(1))
+                .then()
+                .block();
+    }
+}
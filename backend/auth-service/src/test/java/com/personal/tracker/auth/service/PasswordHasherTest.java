@@ -0,0 +1,67 @@
+package com.personal.tracker.auth.service;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+class PasswordHasherTest {
+
+    @Test
+    void saturatedHasherRejectsWithTooManyRequests() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PasswordHasher hasher = new PasswordHasher(new BlockingEncoder(release), meterRegistry, 1, 1);
+
+        Mono<String> running = hasher.encode("first").cache();
+        running.subscribe();
+        Mono<String> queued = hasher.encode("second").cache();
+        queued.subscribe();
+        try {
+            hasher.encode("third").block();
+            throw new AssertionError("Expected the hash beyond the queue capacity to be rejected");
+        } catch (ResponseStatusException e) {
+            if (e.getStatusCode() != HttpStatus.TOO_MANY_REQUESTS) {
+                throw new AssertionError("Expected 429 but got " + e.getStatusCode());
+            }
+        }
+
+        release.countDown();
+        if (!"hashed:first".equals(running.block()) || !"hashed:second".equals(queued.block())) {
+            throw new AssertionError("Expected the accepted hashes to complete once the pool drains");
+        }
+        if (meterRegistry.get("auth.password.rejected").counter().count() != 1) {
+            throw new AssertionError("Expected the rejection to be counted");
+        }
+        if (meterRegistry.get("auth.password.hash").tag("operation", "encode").timer().count() != 2) {
+            throw new AssertionError("Expected both completed hashes to be timed");
+        }
+        hasher.shutdown();
+    }
+
+    private record BlockingEncoder(CountDownLatch release) implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            try {
+                if (!release.await(5, TimeUnit.SECONDS)) {
+                    throw new IllegalStateException("Hashing was never released");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            return "hashed:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encodedPassword.equals(encode(rawPassword));
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.personal.tracker.auth.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import com.personal.tracker.auth.domain.ResetTokenEntity;
+import com.personal.tracker.auth.repository.ResetTokenFixtures;
+import com.personal.tracker.auth.repository.ResetTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(properties = "security.reset.purge-batch-size=2")
+@ActiveProfiles("test")
+class ResetTokenPurgerTest {
+
+    @Autowired
+    private ResetTokenRepository resetTokenRepository;
+
+    @Autowired
+    private ResetTokenPurger resetTokenPurger;
+
+    @BeforeEach
+    void clear() {
+        resetTokenRepository.deleteAll().block();
+    }
+
+    @Test
+    void purgeDeletesSpentResetsInBatches() {
+        UUID user = UUID.randomUUID();
+        Instant now = Instant.now();
+        for (int i = 0; i < 3; i++) {
+            ResetTokenFixtures.save(resetTokenRepository, user,
+                    now.minus(Duration.ofHours(2)), now.minus(Duration.ofHours(1)), false);
+            ResetTokenFixtures.save(resetTokenRepository, user, now, now.plus(Duration.ofMinutes(15)), true);
+        }
+        ResetTokenEntity live = ResetTokenFixtures.save(resetTokenRepository, user,
+                now, now.plus(Duration.ofMinutes(15)), false);
+
+        Long purged = resetTokenPurger.purge().block();
+        if (purged == null || purged != 6) {
+            throw new AssertionError("Expected all six spent resets to be purged but got " + purged);
+        }
+        List<ResetTokenEntity> remaining = resetTokenRepository.findAll().collectList().block();
+        if (remaining.size() != 1 || !remaining.get(0).getId().equals(live.getId())) {
+            throw new AssertionError("Expected only the live reset to remain but got " + remaining.size() + " rows");
+        }
+    }
+}
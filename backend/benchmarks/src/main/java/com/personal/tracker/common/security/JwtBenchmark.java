@@ -0,0 +1,66 @@
+package com.personal.tracker.common.security;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.SecretKey;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+
+/**
+ * Issuing a token on login and decoding one on every authenticated request, with and without the
+ * {@link CachingReactiveJwtDecoder} that {@link JwtConfig} puts in front of the Nimbus decoder.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JwtService jwtService;
+    private ReactiveJwtDecoder jwtDecoder;
+    private ReactiveJwtDecoder cachingJwtDecoder;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtProperties properties = new JwtProperties("benchmark-secret-key-32-chars-long", Duration.ofHours(1), null);
+        JwtConfig config = new JwtConfig();
+        SecretKey secretKey = config.jwtSecretKey(properties);
+        jwtService = new JwtService(config.jwtEncoder(secretKey), properties);
+        jwtDecoder = NimbusReactiveJwtDecoder.withSecretKey(secretKey).macAlgorithm(MacAlgorithm.HS256).build();
+        cachingJwtDecoder = new CachingReactiveJwtDecoder(jwtDecoder, properties.decoderCacheSize(), null);
+        token = jwtService.issueToken("bench-user", List.of("USER")).block().token();
+    }
+
+    @Benchmark
+    public JwtService.TokenResult issueToken() {
+        return jwtService.issueToken("bench-user", List.of("USER")).block();
+    }
+
+    @Benchmark
+    public Jwt decode() {
+        return jwtDecoder.decode(token).block();
+    }
+
+    @Benchmark
+    public Jwt cachedDecode() {
+        return cachingJwtDecoder.decode(token).block();
+    }
+}
@@ -0,0 +1,33 @@
+package com.personal.tracker.common.validation;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PasswordValidatorBenchmark {
+
+    @Param({"Str0ng!Pass", "alllowercasebutlong", "Str0ng!Pass-with-a-much-longer-passphrase-tail-0123456789"})
+    public String password;
+
+    private final PasswordValidator validator = new PasswordValidator();
+
+    @Benchmark
+    public boolean isValid() {
+        return validator.isValid(password, null);
+    }
+}
@@ -0,0 +1,248 @@
+package com.personal.tracker.loadtest;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import com.personal.tracker.reporting.repository.TaskRollupRepository;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import reactor.core.publisher.Flux;
+
+/**
+ * Fills the auth and task databases with {@code load-user-NNNNN} accounts and their tasks and notes, with
+ * the skew real data has: the first {@code power-users} accounts own {@code power-user-tasks} tasks each,
+ * everybody else a Pareto-distributed handful; applications are Zipf-distributed per user; most tasks
+ * carry a few notes and about one in a hundred a long thread. Generated rows bypass task-service, so the
+ * reporting rollups are rebuilt from scratch at the end. All services must have been started once against
+ * the databases so their schemas exist. Runs with the same seed produce the same data.
+ */
+final class DataGenerator {
+
+    static final String USER_PREFIX = "load-user-";
+    static final String DEFAULT_PASSWORD = "LoadTest#2024";
+
+    private static final int BATCH_SIZE = 1000;
+    private static final String[] COMPLEXITIES = {"LOW", "MEDIUM", "HIGH", "VERY_HIGH"};
+    private static final double[] COMPLEXITY_CDF = {0.35, 0.75, 0.95, 1.0};
+    private static final String[] WORDS = ("review deploy fix flaky test migrate schema refactor handler update docs "
+            + "investigate latency spike customer report rollout config cleanup backlog sync with team pair on "
+            + "incident follow-up dependency bump release notes draft estimate spike outcome blocked waiting")
+            .split(" ");
+
+    /** A null column value together with the type the driver needs to bind it. */
+    private record Null(Class<?> type) {
+    }
+
+    private final LoadTest.Options options;
+    private final SplittableRandom random;
+
+    DataGenerator(LoadTest.Options options) {
+        this.options = options;
+        this.random = new SplittableRandom(Long.parseLong(options.get("seed", "42")));
+    }
+
+    static String username(int index) {
+        return USER_PREFIX + String.format("%05d", index);
+    }
+
+    void generate() {
+        int users = options.getInt("users", 200);
+        int powerUsers = options.getInt("power-users", 2);
+        int powerUserTasks = options.getInt("power-user-tasks", 50_000);
+        int applications = options.getInt("applications", 150);
+        int historyDays = options.getInt("history-days", 730);
+
+        DatabaseClient auth = DatabaseClient.create(connectionFactory("auth-db-url",
+                "r2dbc:postgresql://localhost:5432/personal_tracker_auth"));
+        DatabaseClient tasks = DatabaseClient.create(connectionFactory("task-db-url",
+                "r2dbc:postgresql://localhost:5432/personal_tracker_task"));
+        requireTable(auth, "users");
+        requireTable(tasks, "tasks");
+        requireTable(tasks, "task_daily_rollup");
+
+        long started = System.nanoTime();
+        auth.sql("DELETE FROM users WHERE username LIKE '" + USER_PREFIX + "%'").then().block();
+        tasks.sql("DELETE FROM tasks WHERE user_id LIKE '" + USER_PREFIX + "%'").then().block();
+
+        String passwordHash = PasswordEncoderFactories.createDelegatingPasswordEncoder()
+                .encode(options.get("password", DEFAULT_PASSWORD));
+        List<Object[]> userRows = new ArrayList<>(users);
+        for (int i = 1; i <= users; i++) {
+            userRows.add(new Object[] {UUID.randomUUID(), username(i), username(i) + "@loadtest.local", passwordHash,
+                    "ROLE_USER", Instant.now()});
+        }
+        insert(auth, "INSERT INTO users (id, username, email, password_hash, roles, created_at)"
+                + " VALUES ($1, $2, $3, $4, $5, $6)", userRows);
+
+        double[] applicationCdf = zipfCdf(applications, 1.1);
+        long taskCount = 0;
+        long noteCount = 0;
+        Instant now = Instant.now();
+        for (int i = 1; i <= users; i++) {
+            int userTasks = i <= powerUsers ? powerUserTasks : pareto(50, 1.2, 10_000);
+            // Each user works on their own slice of the application catalogue.
+            int applicationOffset = random.nextInt(applications);
+            List<Object[]> taskRows = new ArrayList<>(BATCH_SIZE);
+            List<Object[]> noteRows = new ArrayList<>();
+            for (int t = 0; t < userTasks; t++) {
+                int application = (sample(applicationCdf) + applicationOffset) % applications;
+                noteCount += addTask(taskRows, noteRows, username(i), "app-" + application, now, historyDays);
+                if (taskRows.size() == BATCH_SIZE || t == userTasks - 1) {
+                    insertTasks(tasks, taskRows, noteRows);
+                    taskCount += taskRows.size();
+                    taskRows.clear();
+                    noteRows.clear();
+                }
+            }
+            if (i % 20 == 0 || i == users) {
+                System.out.printf("%d/%d users, %d tasks, %d notes%n", i, users, taskCount, noteCount);
+            }
+        }
+
+        tasks.sql("ANALYZE tasks").then().then(tasks.sql("ANALYZE task_notes").then()).block();
+        long rollupRows = new TaskRollupRepository(tasks).rebuild(null).block();
+        System.out.printf("Generated %d users, %d tasks and %d notes (%d rollup rows) in %ds%n", users, taskCount,
+                noteCount, rollupRows, Duration.ofNanos(System.nanoTime() - started).toSeconds());
+    }
+
+    private int addTask(List<Object[]> taskRows, List<Object[]> noteRows, String userId, String application,
+            Instant now, int historyDays) {
+        UUID id = UUID.randomUUID();
+        Instant createdAt = now.minusSeconds(1 + random.nextLong(historyDays * 86_400L));
+        double roll = random.nextDouble();
+        String status;
+        Instant startedAt = null;
+        Instant closedAt = null;
+        if (roll < 0.60 && createdAt.isBefore(now.minus(1, ChronoUnit.DAYS))) {
+            status = "CLOSED";
+            startedAt = createdAt.plus(random.nextInt(48), ChronoUnit.HOURS);
+            Instant closed = startedAt.plus(Math.round(-7 * Math.log(1 - random.nextDouble()) * 24), ChronoUnit.HOURS);
+            // The service closes on whole days.
+            closedAt = (closed.isAfter(now) ? now : closed).truncatedTo(ChronoUnit.DAYS);
+            if (closedAt.isBefore(startedAt)) {
+                startedAt = closedAt;
+                createdAt = createdAt.isAfter(closedAt) ? closedAt : createdAt;
+            }
+        } else if (roll < 0.75) {
+            status = "IN_PROGRESS";
+            startedAt = createdAt.plus(random.nextInt(48), ChronoUnit.HOURS);
+            if (startedAt.isAfter(now)) {
+                startedAt = now;
+            }
+        } else {
+            status = "OPEN";
+        }
+        LocalDate deadline = createdAt.atOffset(ZoneOffset.UTC).toLocalDate().plusDays(1 + random.nextInt(60));
+
+        int notes = random.nextDouble() < 0.01 ? 100 + random.nextInt(400) : (int) (-2 * Math.log(1 - random.nextDouble()));
+        Instant updatedAt = closedAt != null ? closedAt : startedAt != null ? startedAt : createdAt;
+        for (int n = 0; n < notes; n++) {
+            Instant noteAt = updatedAt.plusSeconds(60).isAfter(now) ? now : updatedAt.plusSeconds(60);
+            noteRows.add(new Object[] {UUID.randomUUID(), id, userId, sentence(5 + random.nextInt(40)), noteAt});
+            updatedAt = noteAt;
+        }
+        taskRows.add(new Object[] {id, userId, sentence(3 + random.nextInt(6)),
+                random.nextInt(3) == 0 ? new Null(String.class) : sentence(20), application,
+                COMPLEXITIES[sample(COMPLEXITY_CDF)], deadline, status, createdAt, updatedAt,
+                nullable(startedAt), nullable(closedAt), nullable(closedAt)});
+        return notes;
+    }
+
+    private void insertTasks(DatabaseClient tasks, List<Object[]> taskRows, List<Object[]> noteRows) {
+        insert(tasks, "INSERT INTO tasks (id, user_id, title, description, application, complexity, deadline_date,"
+                + " status, created_at, updated_at, started_at, closed_at, archived_at)"
+                + " VALUES ($1, $2, $3, $4, $5, $6, $7, $8, $9, $10, $11, $12, $13)", taskRows);
+        insert(tasks, "INSERT INTO task_notes (id, task_id, user_id, content, created_at)"
+                + " VALUES ($1, $2, $3, $4, $5)", noteRows);
+    }
+
+    private static Object nullable(Instant value) {
+        return value != null ? value : new Null(Instant.class);
+    }
+
+    /**
+     * Sends {@code rows} as one batched statement per {@value #BATCH_SIZE} rows.
+     */
+    private static void insert(DatabaseClient client, String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            List<Object[]> batch = rows.subList(from, Math.min(rows.size(), from + BATCH_SIZE));
+            client.inConnection(connection -> {
+                Statement statement = connection.createStatement(sql);
+                for (int r = 0; r < batch.size(); r++) {
+                    if (r > 0) {
+                        statement.add();
+                    }
+                    Object[] row = batch.get(r);
+                    for (int c = 0; c < row.length; c++) {
+                        if (row[c] instanceof Null value) {
+                            statement.bindNull(c, value.type());
+                        } else {
+                            statement.bind(c, row[c]);
+                        }
+                    }
+                }
+                return Flux.from(statement.execute()).flatMap(Result::getRowsUpdated).then();
+            }).block();
+        }
+    }
+
+    private ConnectionFactory connectionFactory(String option, String defaultUrl) {
+        return ConnectionFactories.get(ConnectionFactoryOptions.parse(options.get(option, defaultUrl)).mutate()
+                .option(ConnectionFactoryOptions.USER, options.get("db-username", EmbeddedDatabase.USERNAME))
+                .option(ConnectionFactoryOptions.PASSWORD, options.get("db-password", EmbeddedDatabase.PASSWORD))
+                .build());
+    }
+
+    private static void requireTable(DatabaseClient client, String table) {
+        client.sql("SELECT 1 FROM " + table + " LIMIT 1").fetch().all().then()
+                .onErrorMap(error -> new IllegalStateException("Cannot read table " + table + "; check that the database is up"
+                        + " and that the services have been started against it once to create their schemas", error))
+                .block();
+    }
+
+    private static double[] zipfCdf(int n, double exponent) {
+        double[] cdf = new double[n];
+        double sum = 0;
+        for (int k = 0; k < n; k++) {
+            sum += 1 / Math.pow(k + 1, exponent);
+            cdf[k] = sum;
+        }
+        for (int k = 0; k < n; k++) {
+            cdf[k] /= sum;
+        }
+        return cdf;
+    }
+
+    private int sample(double[] cdf) {
+        int index = Arrays.binarySearch(cdf, random.nextDouble());
+        return Math.min(index >= 0 ? index : -index - 1, cdf.length - 1);
+    }
+
+    private int pareto(int minimum, double alpha, int cap) {
+        return (int) Math.min(cap, minimum / Math.pow(1 - random.nextDouble(), 1 / alpha));
+    }
+
+    private String sentence(int words) {
+        StringBuilder text = new StringBuilder();
+        for (int w = 0; w < words; w++) {
+            if (w > 0) {
+                text.append(' ');
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+}
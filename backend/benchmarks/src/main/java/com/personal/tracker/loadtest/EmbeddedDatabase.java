@@ -0,0 +1,59 @@
+package com.personal.tracker.loadtest;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.CountDownLatch;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Stand-in for the docker-compose {@code db} service: a throwaway Postgres with the same databases and
+ * credentials, so the services start against it with their default R2DBC settings. Postgres refuses to
+ * run as root, so start it as an unprivileged user.
+ */
+final class EmbeddedDatabase {
+
+    static final String USERNAME = "tracker";
+    static final String PASSWORD = "tracker";
+    static final String[] DATABASES = {"personal_tracker_auth", "personal_tracker_task"};
+
+    private final EmbeddedPostgres postgres;
+
+    private EmbeddedDatabase(EmbeddedPostgres postgres) {
+        this.postgres = postgres;
+    }
+
+    static EmbeddedDatabase start(LoadTest.Options options) throws IOException, SQLException {
+        EmbeddedPostgres postgres = EmbeddedPostgres.builder()
+                .setPort(options.getInt("port", 5432))
+                .setServerConfig("max_connections", options.get("max-connections", "200"))
+                .setServerConfig("shared_buffers", options.get("shared-buffers", "512MB"))
+                .start();
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+                Statement statement = connection.createStatement()) {
+            statement.execute("CREATE ROLE " + USERNAME + " LOGIN PASSWORD '" + PASSWORD + "'");
+            for (String database : DATABASES) {
+                statement.execute("CREATE DATABASE " + database + " OWNER " + USERNAME);
+            }
+        }
+        System.out.printf("Postgres listening on localhost:%d (user %s, databases %s and %s)%n",
+                postgres.getPort(), USERNAME, DATABASES[0], DATABASES[1]);
+        return new EmbeddedDatabase(postgres);
+    }
+
+    void awaitShutdown() throws InterruptedException {
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                postgres.close();
+            } catch (IOException e) {
+                System.err.println("Failed to stop Postgres: " + e.getMessage());
+            }
+            stopped.countDown();
+        }));
+        System.out.println("Press Ctrl-C to stop");
+        stopped.await();
+    }
+}
@@ -0,0 +1,68 @@
+package com.personal.tracker.loadtest;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command line entry of the load rig:
+ * <pre>
+ * java -cp benchmarks.jar com.personal.tracker.loadtest.LoadTest db       [--port=5432]
+ * java -cp benchmarks.jar com.personal.tracker.loadtest.LoadTest generate [--users=200 --power-users=2 ...]
+ * java -cp benchmarks.jar com.personal.tracker.loadtest.LoadTest run      [--concurrency=32 --duration=PT2M ...]
+ * </pre>
+ * {@code db} is only needed when the docker-compose Postgres is not used. See the README for every option.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("usage: LoadTest db|generate|run [--option=value ...]");
+            System.exit(2);
+        }
+        Options options = Options.parse(Arrays.copyOfRange(args, 1, args.length));
+        switch (args[0]) {
+            case "db" -> EmbeddedDatabase.start(options).awaitShutdown();
+            case "generate" -> new DataGenerator(options).generate();
+            case "run" -> new Workload(options).run();
+            default -> {
+                System.err.println("unknown command " + args[0]);
+                System.exit(2);
+            }
+        }
+    }
+
+    /**
+     * {@code --name=value} arguments; anything not given falls back to the {@code LOADTEST_NAME} environment
+     * variable (dashes become underscores) and then to the caller's default.
+     */
+    record Options(Map<String, String> values) {
+
+        static Options parse(String[] args) {
+            Map<String, String> values = new HashMap<>();
+            for (String arg : args) {
+                if (!arg.startsWith("--")) {
+                    throw new IllegalArgumentException("Expected --name=value but got " + arg);
+                }
+                int eq = arg.indexOf('=');
+                values.put(eq < 0 ? arg.substring(2) : arg.substring(2, eq), eq < 0 ? "true" : arg.substring(eq + 1));
+            }
+            return new Options(values);
+        }
+
+        String get(String name, String defaultValue) {
+            String value = values.get(name);
+            if (value == null) {
+                value = System.getenv("LOADTEST_" + name.replace('-', '_').toUpperCase());
+            }
+            return value != null ? value : defaultValue;
+        }
+
+        int getInt(String name, int defaultValue) {
+            return Integer.parseInt(get(name, Integer.toString(defaultValue)));
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.personal.tracker.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Closed-loop workload against the three running services. Each of {@code concurrency} virtual users logs
+ * in as one of the generated accounts (the power users included), then issues operations drawn from the
+ * {@code mix} weights back to back until the run ends. Latencies of successful calls go to one HDR histogram
+ * per operation; only calls that start after the warm-up are recorded. Results are printed and written to
+ * {@code results/loadtest-<timestamp>/}: {@code summary.json} plus one {@code .hgrm} percentile file per
+ * operation in milliseconds, which the HdrHistogram plotter reads.
+ */
+final class Workload {
+
+    enum Operation {
+        LOGIN, LIST, GET, NOTE, STATUS, REPORT
+    }
+
+    private static final String[] WINDOWS = {"WEEKLY", "MONTHLY", "QUARTERLY", "HALF_YEARLY", "YEARLY"};
+    private static final String[] PERCENTILE_LABELS = {"p50", "p90", "p99", "p99.9"};
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+    private static final long HIGHEST_TRACKABLE_MICROS = Duration.ofMinutes(1).toNanos() / 1000;
+
+    private final LoadTest.Options options;
+    private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private final Map<String, LongAdder> errorReasons = new ConcurrentHashMap<>();
+    private final Operation[] mix;
+    private final String password;
+    private final int users;
+    private volatile long measureFromNanos;
+
+    Workload(LoadTest.Options options) {
+        this.options = options;
+        this.mix = parseMix(options.get("mix", "login=5,list=35,get=25,note=10,status=10,report=15"));
+        this.password = options.get("password", DataGenerator.DEFAULT_PASSWORD);
+        this.users = options.getInt("users", 50);
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    void run() throws IOException {
+        int concurrency = options.getInt("concurrency", 32);
+        Duration warmup = Duration.parse(options.get("warmup", "PT30S"));
+        Duration duration = Duration.parse(options.get("duration", "PT2M"));
+        HttpClient httpClient = HttpClient.create(ConnectionProvider.builder("loadtest")
+                .maxConnections(concurrency * 3)
+                .pendingAcquireMaxCount(-1)
+                .build());
+        WebClient.Builder builder = WebClient.builder().clientConnector(new ReactorClientHttpConnector(httpClient));
+        WebClient auth = builder.baseUrl(options.get("auth-url", "http://localhost:8081")).build();
+        WebClient tasks = builder.baseUrl(options.get("task-url", "http://localhost:8082")).build();
+        WebClient reports = builder.baseUrl(options.get("report-url", "http://localhost:8083")).build();
+
+        System.out.printf("%d virtual users over %d accounts, %ss warm-up, %ss measured%n", concurrency, users,
+                warmup.toSeconds(), duration.toSeconds());
+        long start = System.nanoTime();
+        measureFromNanos = start + warmup.toNanos();
+        long endNanos = measureFromNanos + duration.toNanos();
+        Flux.range(0, concurrency)
+                .flatMap(worker -> new Session(auth, tasks, reports, DataGenerator.username(1 + worker % users))
+                        .run(endNanos), concurrency)
+                .blockLast();
+        report(duration);
+    }
+
+    private final class Session {
+
+        private final WebClient auth;
+        private final WebClient tasks;
+        private final WebClient reports;
+        private final String username;
+        private final List<String> taskIds = new ArrayList<>();
+        private final Map<String, String> statuses = new LinkedHashMap<>();
+        private String token;
+        private String cursor = "";
+
+        Session(WebClient auth, WebClient tasks, WebClient reports, String username) {
+            this.auth = auth;
+            this.tasks = tasks;
+            this.reports = reports;
+            this.username = username;
+        }
+
+        Mono<Void> run(long endNanos) {
+            return timed(Operation.LOGIN, login())
+                    .then(timed(Operation.LIST, list()))
+                    .then(Mono.defer(this::next).repeat(() -> System.nanoTime() < endNanos).then());
+        }
+
+        private Mono<Void> next() {
+            Operation operation = mix[ThreadLocalRandom.current().nextInt(mix.length)];
+            if (taskIds.isEmpty() && (operation == Operation.GET || operation == Operation.NOTE
+                    || operation == Operation.STATUS)) {
+                operation = Operation.LIST;
+            }
+            return timed(operation, switch (operation) {
+                case LOGIN -> login();
+                case LIST -> list();
+                case GET -> get("/api/tasks/" + randomTask());
+                case NOTE -> post(tasks, "/api/tasks/" + randomTask() + "/notes",
+                        Map.of("content", "load test note " + System.nanoTime()));
+                case STATUS -> toggleStatus();
+                case REPORT -> reports.get()
+                        .uri("/api/reports/tasks?window=" + WINDOWS[ThreadLocalRandom.current().nextInt(WINDOWS.length)])
+                        .headers(headers -> headers.setBearerAuth(token))
+                        .retrieve()
+                        .bodyToMono(JsonNode.class)
+                        .then();
+            });
+        }
+
+        private Mono<Void> login() {
+            return auth.post()
+                    .uri("/api/auth/login")
+                    .bodyValue(Map.of("username", username, "password", password))
+                    .retrieve()
+                    .bodyToMono(JsonNode.class)
+                    .doOnNext(body -> token = body.get("token").asText())
+                    .then();
+        }
+
+        private Mono<Void> list() {
+            return tasks.get()
+                    .uri(builder -> builder.path("/api/tasks").queryParam("size", 20).queryParam("cursor", cursor).build())
+                    .headers(headers -> headers.setBearerAuth(token))
+                    .retrieve()
+                    .bodyToMono(JsonNode.class)
+                    .doOnNext(page -> {
+                        for (JsonNode task : page.get("content")) {
+                            String id = task.get("id").asText();
+                            if (statuses.put(id, task.get("status").asText()) == null) {
+                                taskIds.add(id);
+                            }
+                        }
+                        JsonNode next = page.get("nextCursor");
+                        cursor = next == null || next.isNull() ? "" : next.asText();
+                    })
+                    .then();
+        }
+
+        private Mono<Void> toggleStatus() {
+            String id = randomTask();
+            String status = "IN_PROGRESS".equals(statuses.get(id)) ? "OPEN" : "IN_PROGRESS";
+            return post(tasks, "/api/tasks/" + id + "/status", Map.of("status", status))
+                    .doOnSuccess(ignored -> statuses.put(id, status));
+        }
+
+        private Mono<Void> get(String path) {
+            return tasks.get()
+                    .uri(path)
+                    .headers(headers -> headers.setBearerAuth(token))
+                    .retrieve()
+                    .bodyToMono(JsonNode.class)
+                    .then();
+        }
+
+        private Mono<Void> post(WebClient client, String path, Object body) {
+            return client.post()
+                    .uri(path)
+                    .headers(headers -> headers.setBearerAuth(token))
+                    .bodyValue(body)
+                    .retrieve()
+                    .bodyToMono(JsonNode.class)
+                    .then();
+        }
+
+        private String randomTask() {
+            return taskIds.get(ThreadLocalRandom.current().nextInt(taskIds.size()));
+        }
+    }
+
+    private Mono<Void> timed(Operation operation, Mono<Void> call) {
+        return Mono.defer(() -> {
+            long started = System.nanoTime();
+            boolean measured = started >= measureFromNanos;
+            return call
+                    .doOnSuccess(ignored -> {
+                        if (measured) {
+                            latencies.get(operation).recordValue(
+                                    Math.min(HIGHEST_TRACKABLE_MICROS, (System.nanoTime() - started) / 1000));
+                        }
+                    })
+                    .onErrorResume(error -> {
+                        if (measured) {
+                            errors.get(operation).increment();
+                            String reason = error instanceof WebClientResponseException response
+                                    ? Integer.toString(response.getStatusCode().value())
+                                    : error.getClass().getSimpleName();
+                            errorReasons.computeIfAbsent(operation + " " + reason, key -> new LongAdder()).increment();
+                        }
+                        return Mono.empty();
+                    });
+        });
+    }
+
+    private void report(Duration duration) throws IOException {
+        Path directory = Path.of(options.get("out", "results"),
+                "loadtest-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")));
+        Files.createDirectories(directory);
+        double seconds = duration.toMillis() / 1000.0;
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        long totalOk = 0;
+        long totalErrors = 0;
+        System.out.printf("%n%-8s %9s %7s %9s %9s %9s %9s %9s %9s%n", "op", "ok", "errors", "req/s",
+                "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = latencies.get(operation);
+            long ok = histogram.getTotalCount();
+            long failed = errors.get(operation).sum();
+            totalOk += ok;
+            totalErrors += failed;
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("ok", ok);
+            stats.put("errors", failed);
+            stats.put("throughput", ok / seconds);
+            for (int p = 0; p < PERCENTILES.length; p++) {
+                stats.put(PERCENTILE_LABELS[p], histogram.getValueAtPercentile(PERCENTILES[p]) / 1000.0);
+            }
+            stats.put("max", histogram.getMaxValue() / 1000.0);
+            summary.put(operation.name().toLowerCase(), stats);
+            System.out.printf("%-8s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", operation.name().toLowerCase(),
+                    ok, failed, ok / seconds, stats.get("p50"), stats.get("p90"), stats.get("p99"),
+                    stats.get("p99.9"), stats.get("max"));
+            try (PrintStream out = new PrintStream(
+                    Files.newOutputStream(directory.resolve(operation.name().toLowerCase() + ".hgrm")))) {
+                histogram.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+        System.out.printf("%-8s %9d %7d %9.1f%n", "total", totalOk, totalErrors, totalOk / seconds);
+        errorReasons.forEach((reason, count) -> System.out.printf("  error %s: %d%n", reason, count.sum()));
+
+        summary.put("total", Map.of("ok", totalOk, "errors", totalErrors, "throughput", totalOk / seconds));
+        Map<String, Long> reasons = new LinkedHashMap<>();
+        errorReasons.forEach((reason, count) -> reasons.put(reason, count.sum()));
+        summary.put("errorReasons", reasons);
+        summary.put("options", options.values());
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(directory.resolve("summary.json").toFile(), summary);
+        System.out.println("Results written to " + directory);
+    }
+
+    private static Operation[] parseMix(String mix) {
+        List<Operation> weighted = new ArrayList<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            Operation operation = Operation.valueOf(parts[0].trim().toUpperCase());
+            for (int i = Integer.parseInt(parts[1].trim()); i > 0; i--) {
+                weighted.add(operation);
+            }
+        }
+        if (weighted.isEmpty()) {
+            throw new IllegalArgumentException("The mix must give at least one operation a positive weight");
+        }
+        return weighted.toArray(Operation[]::new);
+    }
+}
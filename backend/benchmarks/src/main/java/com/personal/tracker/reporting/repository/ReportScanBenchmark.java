@@ -0,0 +1,121 @@
+package com.personal.tracker.reporting.repository;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import com.personal.tracker.task.config.VersionedSchemaPopulator;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.r2dbc.connection.init.ResourceDatabasePopulator;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+/**
+ * A monthly report for one user with five years of history, read three ways: the original pipeline
+ * (every row of the user, sorted, then filtered and grouped in memory), the same scan without the
+ * ORDER BY, and the grouped, window-bounded aggregate query the service issues now.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReportScanBenchmark {
+
+    private static final String USER = "large-user";
+    private static final String ROW_SCAN = "SELECT application, complexity, status, created_at, closed_at, archived_at"
+            + " FROM tasks WHERE user_id = :userId";
+
+    private record Row(String application, String complexity, Instant effectiveAt) {
+    }
+
+    @Param({"10000", "100000"})
+    public int userTasks;
+
+    private DatabaseClient databaseClient;
+    private TaskAggregateRepository repository;
+    private Instant from;
+    private Instant to;
+
+    @Setup
+    public void setUp() throws IOException {
+        ConnectionFactory connectionFactory = ConnectionFactories.get(
+                "r2dbc:h2:mem:///report-scan-" + userTasks + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        new VersionedSchemaPopulator("h2").populate(connectionFactory)
+                .then(new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).populate(connectionFactory))
+                .block();
+        databaseClient = DatabaseClient.create(connectionFactory);
+        repository = new TaskAggregateRepository(databaseClient);
+
+        // One task every ~day over five years across 20 applications; two thirds of them closed a day later.
+        databaseClient.sql("""
+                        INSERT INTO tasks (id, user_id, title, application, complexity, status, created_at, updated_at, closed_at)
+                        SELECT RANDOM_UUID(), :userId, 'task ' || x, 'app' || MOD(x, 20),
+                               CASE MOD(x, 4) WHEN 0 THEN 'LOW' WHEN 1 THEN 'MEDIUM' WHEN 2 THEN 'HIGH' ELSE 'VERY_HIGH' END,
+                               CASE WHEN MOD(x, 3) = 0 THEN 'OPEN' ELSE 'CLOSED' END,
+                               created, created,
+                               CASE WHEN MOD(x, 3) = 0 THEN NULL ELSE DATEADD('DAY', 1, created) END
+                        FROM (SELECT x, DATEADD('MINUTE', -x * 1825 * 1440 / :count, CURRENT_TIMESTAMP) AS created
+                              FROM SYSTEM_RANGE(1, :count))""")
+                .bind("userId", USER)
+                .bind("count", userTasks)
+                .then()
+                .block();
+
+        to = Instant.now();
+        from = to.minus(30, ChronoUnit.DAYS);
+    }
+
+    @Benchmark
+    public Map<String, Map<String, Long>> orderedRowScan() {
+        return groupInMemory(ROW_SCAN + " ORDER BY closed_at DESC");
+    }
+
+    @Benchmark
+    public Map<String, Map<String, Long>> unorderedRowScan() {
+        return groupInMemory(ROW_SCAN);
+    }
+
+    @Benchmark
+    public Long groupedAggregate() {
+        return repository.countGroups(USER, null, null, from, to).count().block();
+    }
+
+    private Map<String, Map<String, Long>> groupInMemory(String sql) {
+        List<Row> rows = databaseClient.sql(sql)
+                .bind("userId", USER)
+                .map((row, metadata) -> {
+                    OffsetDateTime closedAt = row.get("closed_at", OffsetDateTime.class);
+                    OffsetDateTime archivedAt = row.get("archived_at", OffsetDateTime.class);
+                    OffsetDateTime effectiveAt = closedAt != null ? closedAt
+                            : archivedAt != null ? archivedAt : row.get("created_at", OffsetDateTime.class);
+                    return new Row(row.get("application", String.class), row.get("complexity", String.class),
+                            effectiveAt.toInstant());
+                })
+                .all()
+                .collectList()
+                .block();
+        return rows.stream()
+                .filter(row -> !row.effectiveAt().isBefore(from) && !row.effectiveAt().isAfter(to))
+                .collect(Collectors.groupingBy(Row::application,
+                        Collectors.groupingBy(Row::complexity, Collectors.counting())));
+    }
+}
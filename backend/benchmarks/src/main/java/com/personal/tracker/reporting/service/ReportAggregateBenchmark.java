@@ -0,0 +1,73 @@
+package com.personal.tracker.reporting.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.personal.tracker.reporting.domain.TaskComplexity;
+import com.personal.tracker.reporting.domain.TaskCount;
+import com.personal.tracker.reporting.domain.TaskStatus;
+import com.personal.tracker.reporting.model.ReportResponse;
+import com.personal.tracker.reporting.model.ReportSortDirection;
+import com.personal.tracker.reporting.model.ReportSortField;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The in-memory half of report generation: folding aggregate rows into a {@link ReportResponse}, as
+ * {@code ReportingService} does with the rows streamed from SQL.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReportAggregateBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private List<TaskCount> counts;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        TaskComplexity[] complexities = TaskComplexity.values();
+        TaskStatus[] statuses = TaskStatus.values();
+        LocalDate today = LocalDate.now();
+        counts = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            TaskStatus status = statuses[random.nextInt(statuses.length)];
+            counts.add(new TaskCount(
+                    "app" + random.nextInt(20),
+                    complexities[random.nextInt(complexities.length)],
+                    status,
+                    status == TaskStatus.CLOSED ? today.minusDays(random.nextInt(365)) : null,
+                    1 + random.nextInt(5)));
+        }
+    }
+
+    @Benchmark
+    public ReportResponse aggregate() {
+        ReportAccumulator accumulator = new ReportAccumulator(
+                day -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)));
+        for (TaskCount count : counts) {
+            accumulator.add(count);
+        }
+        return accumulator.toResponse(ReportSortField.COMPLETION_DATE, ReportSortDirection.DESC);
+    }
+}
@@ -0,0 +1,83 @@
+package com.personal.tracker.task.service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import com.personal.tracker.task.domain.TaskComplexity;
+import com.personal.tracker.task.domain.TaskEntity;
+import com.personal.tracker.task.domain.TaskNoteEntity;
+import com.personal.tracker.task.domain.TaskStatus;
+import com.personal.tracker.task.dto.TaskNoteResponse;
+import com.personal.tracker.task.dto.TaskResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Building one {@link TaskResponse}, notes included, the way {@code TaskService} does for every task it
+ * returns.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskMapperBenchmark {
+
+    @Param({"0", "10", "100", "1000"})
+    public int notes;
+
+    private final TaskMapper taskMapper = new TaskMapper();
+    private TaskEntity task;
+    private List<TaskNoteEntity> noteEntities;
+
+    @Setup
+    public void setUp() {
+        Instant now = Instant.now();
+        task = new TaskEntity();
+        task.setId(UUID.randomUUID());
+        task.setUserId("bench-user");
+        task.setTitle("Benchmark task");
+        task.setDescription("A task with a handful of fields set");
+        task.setApplication("app");
+        task.setComplexity(TaskComplexity.MEDIUM);
+        task.setDeadlineDate(LocalDate.now().plusDays(7));
+        task.setStatus(TaskStatus.IN_PROGRESS);
+        task.setCreatedAt(now);
+        task.setUpdatedAt(now);
+        task.setStartedAt(now);
+
+        noteEntities = new ArrayList<>(notes);
+        for (int i = 0; i < notes; i++) {
+            TaskNoteEntity note = new TaskNoteEntity();
+            note.setId(UUID.randomUUID());
+            note.setTaskId(task.getId());
+            note.setUserId("bench-user");
+            note.setContent("Note " + i + ": progress update with a sentence or two of detail.");
+            note.setCreatedAt(now.plusSeconds(i));
+            noteEntities.add(note);
+        }
+    }
+
+    @Benchmark
+    public TaskResponse toResponse() {
+        List<TaskNoteResponse> responses = new ArrayList<>(noteEntities.size());
+        for (TaskNoteEntity note : noteEntities) {
+            responses.add(taskMapper.toNoteResponse(note));
+        }
+        return taskMapper.toResponse(task, responses);
+    }
+}
@@ -0,0 +1,78 @@
+package com.personal.tracker.common.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Mono;
+
+/**
+ * Remembers successfully decoded tokens, so a client sending the same bearer token on every request pays for
+ * signature verification and claims parsing once. Entries are keyed by the token's SHA-256, so the cache holds
+ * no usable credentials, and expire at the token's {@code exp} at the latest. Failed decodes and tokens without
+ * {@code exp} are never cached. Hit, miss and eviction counts are published as {@code cache.*{cache=jwt}}.
+ */
+public class CachingReactiveJwtDecoder implements ReactiveJwtDecoder {
+
+    private final ReactiveJwtDecoder delegate;
+    private final Cache<String, Jwt> tokens;
+
+    public CachingReactiveJwtDecoder(ReactiveJwtDecoder delegate, long maxSize, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.tokens = Caffeine.newBuilder().maximumSize(maxSize).expireAfter(new UntilTokenExpiry()).recordStats().build();
+        if (meterRegistry != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, tokens, "jwt");
+        }
+    }
+
+    @Override
+    public Mono<Jwt> decode(String token) {
+        String key = hash(token);
+        Jwt cached = tokens.getIfPresent(key);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return delegate.decode(token).doOnNext(jwt -> {
+            if (jwt.getExpiresAt() != null) {
+                tokens.put(key, jwt);
+            }
+        });
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static final class UntilTokenExpiry implements Expiry<String, Jwt> {
+
+        @Override
+        public long expireAfterCreate(String key, Jwt jwt, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), jwt.getExpiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Jwt jwt, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, jwt, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Jwt jwt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -6,6 +6,8 @@ import java.nio.charset.StandardCharsets;
 
 import com.nimbusds.jose.jwk.source.ImmutableSecret;
 import com.nimbusds.jose.proc.SecurityContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -30,7 +32,12 @@ public class JwtConfig {
     }
 
     @Bean
-    public ReactiveJwtDecoder jwtDecoder(SecretKey secretKey) {
-        return NimbusReactiveJwtDecoder.withSecretKey(secretKey).macAlgorithm(MacAlgorithm.HS256).build();
+    public ReactiveJwtDecoder jwtDecoder(SecretKey secretKey, JwtProperties properties,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        ReactiveJwtDecoder decoder = NimbusReactiveJwtDecoder.withSecretKey(secretKey).macAlgorithm(MacAlgorithm.HS256).build();
+        if (properties.decoderCacheSize() <= 0) {
+            return decoder;
+        }
+        return new CachingReactiveJwtDecoder(decoder, properties.decoderCacheSize(), meterRegistry.getIfAvailable());
     }
 }
@@ -5,7 +5,7 @@ import java.time.Duration;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 @ConfigurationProperties(prefix = "security.jwt")
-public record JwtProperties(String secret, Duration ttl) {
+public record JwtProperties(String secret, Duration ttl, Long decoderCacheSize) {
     public String secret() {
         return secret == null || secret.isBlank() ? "dev-secret-key-32-chars-long-123456" : secret;
     }
@@ -13,4 +13,11 @@ public record JwtProperties(String secret, Duration ttl) {
     public Duration ttl() {
         return ttl == null ? Duration.ofHours(1) : ttl;
     }
+
+    /**
+     * Maximum number of decoded tokens kept by {@link CachingReactiveJwtDecoder}; 0 disables the cache.
+     */
+    public Long decoderCacheSize() {
+        return decoderCacheSize == null ? 10_000L : decoderCacheSize;
+    }
 }
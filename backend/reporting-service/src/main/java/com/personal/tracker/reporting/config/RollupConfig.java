@@ -0,0 +1,86 @@
+package com.personal.tracker.reporting.config;
+
+import java.util.List;
+
+import com.personal.tracker.reporting.domain.RollupPartition;
+import com.personal.tracker.reporting.service.TaskRollupService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import reactor.core.publisher.Mono;
+
+@Configuration
+public class RollupConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(RollupConfig.class);
+
+    /**
+     * Maintenance commands, run at startup:
+     * {@code --rollup-backfill[=userId]} rebuilds rollups from tasks,
+     * {@code --rollup-check[=userId]} logs partitions that disagree with raw counts, and
+     * {@code --rollup-repair} additionally rebuilds the partitions the check found.
+     */
+    @Bean
+    public ApplicationRunner rollupMaintenanceRunner(TaskRollupService rollupService) {
+        return args -> {
+            if (args.containsOption("rollup-backfill")) {
+                String userId = optionValue(args, "rollup-backfill");
+                Long rows = rollupService.rebuild(userId).block();
+                log.info("Rollup backfill for {} wrote {} rows", userId != null ? userId : "all users", rows);
+            }
+            if (args.containsOption("rollup-check")) {
+                String userId = optionValue(args, "rollup-check");
+                List<RollupPartition> inconsistent = rollupService.findInconsistencies(userId).collectList().block();
+                if (inconsistent == null || inconsistent.isEmpty()) {
+                    log.info("Rollup check for {}: consistent", userId != null ? userId : "all users");
+                    return;
+                }
+                inconsistent.forEach(partition -> log.warn("Rollup partition {} {} disagrees with tasks",
+                        partition.userId(), partition.day()));
+                if (args.containsOption("rollup-repair")) {
+                    Long repaired = rollupService.repair(userId).block();
+                    log.info("Rollup repair rebuilt {} partitions", repaired);
+                }
+            }
+        };
+    }
+
+    private static String optionValue(ApplicationArguments args, String name) {
+        List<String> values = args.getOptionValues(name);
+        return values == null || values.isEmpty() || values.get(0).isBlank() ? null : values.get(0);
+    }
+
+    @Configuration
+    @EnableScheduling
+    @ConditionalOnProperty(name = "reporting.rollup.refresh-enabled", havingValue = "true", matchIfMissing = true)
+    static class RollupRefreshSchedule {
+
+        private final TaskRollupService rollupService;
+
+        RollupRefreshSchedule(TaskRollupService rollupService) {
+            this.rollupService = rollupService;
+        }
+
+        @Scheduled(fixedDelayString = "${reporting.rollup.refresh-interval:PT30S}")
+        Mono<Void> refreshRollups() {
+            return rollupService.refresh()
+                    .doOnNext(changes -> {
+                        if (changes > 0) {
+                            log.debug("Applied {} task changes to rollups", changes);
+                        }
+                    })
+                    .then(rollupService.purgeAppliedChanges())
+                    .onErrorResume(error -> {
+                        log.warn("Rollup refresh failed", error);
+                        return Mono.empty();
+                    })
+                    .then();
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.personal.tracker.reporting.domain;
+
+/**
+ * What a user's reports are computed from: their latest {@code task_outbox} seq, and whether the rollup
+ * checkpoint has reached it. Both live in the shared database, so every replica derives the same version for
+ * the same data, and it changes when the user's tasks change and again when the rollups catch up.
+ */
+public record ReportVersion(long latestSeq, boolean applied) {
+}
@@ -0,0 +1,6 @@
+package com.personal.tracker.reporting.domain;
+
+import java.time.LocalDate;
+
+public record RollupPartition(String userId, LocalDate day) {
+}
@@ -0,0 +1,16 @@
+package com.personal.tracker.reporting.domain;
+
+import java.time.Instant;
+
+/**
+ * A row of task-service's {@code task_outbox}: one task mutation and the effective timestamps before and
+ * after it ({@code previousEffectiveAt} is null for a newly created task).
+ */
+public record TaskChange(
+        long seq,
+        String userId,
+        Instant previousEffectiveAt,
+        Instant effectiveAt,
+        Instant recordedAt
+) {
+}
@@ -0,0 +1,12 @@
+package com.personal.tracker.reporting.domain;
+
+import java.time.LocalDate;
+
+public record TaskCount(
+        String application,
+        TaskComplexity complexity,
+        TaskStatus status,
+        LocalDate closedDay,
+        long count
+) {
+}
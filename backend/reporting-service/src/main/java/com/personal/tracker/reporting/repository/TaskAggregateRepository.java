@@ -0,0 +1,67 @@
+package com.personal.tracker.reporting.repository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+import com.personal.tracker.reporting.domain.TaskComplexity;
+import com.personal.tracker.reporting.domain.TaskCount;
+import com.personal.tracker.reporting.domain.TaskStatus;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+@Repository
+public class TaskAggregateRepository {
+
+    private static final String CLOSED_DAY = "CAST(closed_at AT TIME ZONE 'UTC' AS DATE)";
+
+    private final DatabaseClient databaseClient;
+
+    public TaskAggregateRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * Counts a user's tasks whose effective timestamp (closed, else archived, else created; stored as the
+     * generated {@code effective_at} column) falls in [from, to), grouped by application, complexity,
+     * status and UTC close day.
+     */
+    public Flux<TaskCount> countGroups(String userId, String application, TaskComplexity complexity, Instant from, Instant to) {
+        return bind(databaseClient.sql(countGroupsSql(application != null, complexity != null)),
+                userId, application, complexity, from, to)
+                .map((row, metadata) -> new TaskCount(
+                        row.get("application", String.class),
+                        TaskComplexity.valueOf(row.get("complexity", String.class)),
+                        TaskStatus.valueOf(row.get("status", String.class)),
+                        row.get("closed_day", LocalDate.class),
+                        row.get("task_count", Long.class)))
+                .all();
+    }
+
+    String countGroupsSql(boolean byApplication, boolean byComplexity) {
+        StringBuilder sql = new StringBuilder()
+                .append("SELECT application, complexity, status, ").append(CLOSED_DAY).append(" AS closed_day, COUNT(*) AS task_count")
+                .append(" FROM tasks WHERE user_id = :userId");
+        if (byApplication) {
+            sql.append(" AND application = :application");
+        }
+        if (byComplexity) {
+            sql.append(" AND complexity = :complexity");
+        }
+        return sql.append(" AND effective_at >= :from AND effective_at < :to")
+                .append(" GROUP BY application, complexity, status, ").append(CLOSED_DAY)
+                .toString();
+    }
+
+    DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec, String userId, String application,
+            TaskComplexity complexity, Instant from, Instant to) {
+        spec = spec.bind("userId", userId).bind("from", from).bind("to", to);
+        if (application != null) {
+            spec = spec.bind("application", application);
+        }
+        if (complexity != null) {
+            spec = spec.bind("complexity", complexity.name());
+        }
+        return spec;
+    }
+}
@@ -0,0 +1,52 @@
+package com.personal.tracker.reporting.repository;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+
+import com.personal.tracker.reporting.domain.TaskChange;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public class TaskChangeRepository {
+
+    private final DatabaseClient databaseClient;
+
+    public TaskChangeRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Flux<TaskChange> findAfter(long seq, int limit) {
+        return databaseClient.sql("""
+                        SELECT seq, user_id, previous_effective_at, effective_at, recorded_at
+                        FROM task_outbox WHERE seq > :seq ORDER BY seq LIMIT :limit""")
+                .bind("seq", seq)
+                .bind("limit", limit)
+                .map((row, metadata) -> new TaskChange(
+                        row.get("seq", Long.class),
+                        row.get("user_id", String.class),
+                        instant(row, "previous_effective_at"),
+                        instant(row, "effective_at"),
+                        instant(row, "recorded_at")))
+                .all();
+    }
+
+    /**
+     * Deletes changes already applied (seq at or below {@code seq}) that were recorded before {@code cutoff}.
+     */
+    public Mono<Long> deleteApplied(long seq, Instant cutoff) {
+        return databaseClient.sql("DELETE FROM task_outbox WHERE seq <= :seq AND recorded_at < :cutoff")
+                .bind("seq", seq)
+                .bind("cutoff", cutoff)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static Instant instant(Readable row, String column) {
+        OffsetDateTime value = row.get(column, OffsetDateTime.class);
+        return value != null ? value.toInstant() : null;
+    }
+}
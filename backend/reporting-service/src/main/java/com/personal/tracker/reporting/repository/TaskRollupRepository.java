@@ -0,0 +1,207 @@
+package com.personal.tracker.reporting.repository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import com.personal.tracker.reporting.domain.ReportVersion;
+import com.personal.tracker.reporting.domain.RollupPartition;
+import com.personal.tracker.reporting.domain.TaskComplexity;
+import com.personal.tracker.reporting.domain.TaskCount;
+import com.personal.tracker.reporting.domain.TaskStatus;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public class TaskRollupRepository {
+
+    private static final String EFFECTIVE_DAY = "CAST(effective_at AT TIME ZONE 'UTC' AS DATE)";
+    private static final String CHECKPOINT_ID = "daily";
+
+    private static final String RAW_COUNTS = "SELECT user_id, " + EFFECTIVE_DAY + " AS rollup_day, COALESCE(application, '') AS application,"
+            + " complexity, status, COUNT(*) AS task_count FROM tasks%s"
+            + " GROUP BY user_id, " + EFFECTIVE_DAY + ", COALESCE(application, ''), complexity, status";
+    private static final String ROLLUP_COUNTS = "SELECT user_id, rollup_day, application, complexity, status, task_count"
+            + " FROM task_daily_rollup%s";
+    private static final String PARTITION_COUNTS = """
+            SELECT user_id, CAST(:day AS DATE) AS rollup_day, COALESCE(application, '') AS application, complexity, status,
+                COUNT(*) AS task_count
+            FROM tasks
+            WHERE user_id = :userId AND effective_at >= :from AND effective_at < :to
+            GROUP BY user_id, COALESCE(application, ''), complexity, status""";
+    static final String REPORT_VERSION = """
+            SELECT COALESCE(MAX(o.seq), 0) AS latest_seq,
+                (SELECT c.last_seq FROM task_rollup_checkpoint c WHERE c.id = 'daily') AS applied_seq
+            FROM task_outbox o
+            WHERE o.user_id = :userId""";
+    private static final String REFRESH_LOCK = "hashtext('task_daily_rollup')";
+
+    private final DatabaseClient databaseClient;
+    private final boolean h2;
+
+    public TaskRollupRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+        this.h2 = "H2".equalsIgnoreCase(databaseClient.getConnectionFactory().getMetadata().getName());
+    }
+
+    /**
+     * Takes the transaction-scoped lock that serialises rollup writers across replicas. With {@code wait} false
+     * it gives up at once and emits false when another transaction holds it. H2 has no advisory locks and only
+     * backs a single in-process instance, so there it always succeeds.
+     */
+    public Mono<Boolean> lockRefresh(boolean wait) {
+        if (h2) {
+            return Mono.just(true);
+        }
+        if (wait) {
+            return databaseClient.sql("SELECT pg_advisory_xact_lock(" + REFRESH_LOCK + ")").then().thenReturn(true);
+        }
+        return databaseClient.sql("SELECT pg_try_advisory_xact_lock(" + REFRESH_LOCK + ") AS locked")
+                .map((row, metadata) -> row.get("locked", Boolean.class))
+                .one();
+    }
+
+    /**
+     * Reads a user's rollup rows for the UTC days [fromDay, toDay]. CLOSED rows carry their day as the
+     * close day, since a closed task's effective timestamp is its close timestamp.
+     */
+    public Flux<TaskCount> findCounts(String userId, String application, TaskComplexity complexity, LocalDate fromDay, LocalDate toDay) {
+        StringBuilder sql = new StringBuilder("SELECT application, complexity, status, rollup_day, task_count FROM task_daily_rollup")
+                .append(" WHERE user_id = :userId AND rollup_day >= :fromDay AND rollup_day <= :toDay");
+        if (application != null) {
+            sql.append(" AND application = :application");
+        }
+        if (complexity != null) {
+            sql.append(" AND complexity = :complexity");
+        }
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString())
+                .bind("userId", userId)
+                .bind("fromDay", fromDay)
+                .bind("toDay", toDay);
+        if (application != null) {
+            spec = spec.bind("application", application);
+        }
+        if (complexity != null) {
+            spec = spec.bind("complexity", complexity.name());
+        }
+        return spec.map((row, metadata) -> {
+                    String app = row.get("application", String.class);
+                    TaskStatus status = TaskStatus.valueOf(row.get("status", String.class));
+                    return new TaskCount(
+                            app == null || app.isEmpty() ? null : app,
+                            TaskComplexity.valueOf(row.get("complexity", String.class)),
+                            status,
+                            status == TaskStatus.CLOSED ? row.get("rollup_day", LocalDate.class) : null,
+                            row.get("task_count", Long.class));
+                })
+                .all();
+    }
+
+    /**
+     * Rewrites one partition in place: keys that still have tasks are upserted with their current count and
+     * keys that no longer have any are deleted, so a concurrent rebuild of the same partition cannot trip over
+     * rows the other one inserted. Postgres upserts with ON CONFLICT, H2 with the equivalent MERGE.
+     */
+    public Mono<Long> rebuildPartition(RollupPartition partition) {
+        Instant from = partition.day().atStartOfDay(ZoneOffset.UTC).toInstant();
+        Instant to = partition.day().plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+        String upsert = h2
+                ? "MERGE INTO task_daily_rollup r USING (" + PARTITION_COUNTS + ") c"
+                        + " ON (r.user_id = c.user_id AND r.rollup_day = c.rollup_day AND r.application = c.application"
+                        + " AND r.complexity = c.complexity AND r.status = c.status)"
+                        + " WHEN MATCHED THEN UPDATE SET task_count = c.task_count"
+                        + " WHEN NOT MATCHED THEN INSERT (user_id, rollup_day, application, complexity, status, task_count)"
+                        + " VALUES (c.user_id, c.rollup_day, c.application, c.complexity, c.status, c.task_count)"
+                : "INSERT INTO task_daily_rollup (user_id, rollup_day, application, complexity, status, task_count) "
+                        + PARTITION_COUNTS
+                        + " ON CONFLICT (user_id, rollup_day, application, complexity, status)"
+                        + " DO UPDATE SET task_count = EXCLUDED.task_count"
+                        + " WHERE task_daily_rollup.task_count <> EXCLUDED.task_count";
+        return databaseClient.sql("""
+                        DELETE FROM task_daily_rollup
+                        WHERE user_id = :userId AND rollup_day = :day
+                        AND NOT EXISTS (
+                            SELECT 1 FROM tasks t
+                            WHERE t.user_id = task_daily_rollup.user_id AND t.effective_at >= :from AND t.effective_at < :to
+                            AND COALESCE(t.application, '') = task_daily_rollup.application
+                            AND t.complexity = task_daily_rollup.complexity AND t.status = task_daily_rollup.status)""")
+                .bind("userId", partition.userId())
+                .bind("day", partition.day())
+                .bind("from", from)
+                .bind("to", to)
+                .fetch()
+                .rowsUpdated()
+                .then(databaseClient.sql(upsert)
+                        .bind("day", partition.day())
+                        .bind("userId", partition.userId())
+                        .bind("from", from)
+                        .bind("to", to)
+                        .fetch()
+                        .rowsUpdated());
+    }
+
+    /**
+     * Replaces every rollup row of {@code userId}, or of all users when it is null, with counts recomputed
+     * from tasks.
+     */
+    public Mono<Long> rebuild(String userId) {
+        String filter = userId != null ? " WHERE user_id = :userId" : "";
+        DatabaseClient.GenericExecuteSpec delete = databaseClient.sql("DELETE FROM task_daily_rollup" + filter);
+        DatabaseClient.GenericExecuteSpec insert = databaseClient.sql(
+                "INSERT INTO task_daily_rollup (user_id, rollup_day, application, complexity, status, task_count) "
+                        + RAW_COUNTS.formatted(filter));
+        if (userId != null) {
+            delete = delete.bind("userId", userId);
+            insert = insert.bind("userId", userId);
+        }
+        return delete.fetch().rowsUpdated().then(insert.fetch().rowsUpdated());
+    }
+
+    /**
+     * Partitions whose rollup rows differ from counts recomputed from tasks, in either direction.
+     */
+    public Flux<RollupPartition> findInconsistentPartitions(String userId) {
+        String filter = userId != null ? " WHERE user_id = :userId" : "";
+        String raw = RAW_COUNTS.formatted(filter);
+        String rollup = ROLLUP_COUNTS.formatted(filter);
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(
+                "SELECT user_id, rollup_day FROM (" + raw + " EXCEPT " + rollup + ") missing"
+                        + " UNION SELECT user_id, rollup_day FROM (" + rollup + " EXCEPT " + raw + ") extra");
+        if (userId != null) {
+            spec = spec.bind("userId", userId);
+        }
+        return spec.map((row, metadata) -> new RollupPartition(row.get("user_id", String.class), row.get("rollup_day", LocalDate.class)))
+                .all();
+    }
+
+    public Mono<ReportVersion> findReportVersion(String userId) {
+        return databaseClient.sql(REPORT_VERSION)
+                .bind("userId", userId)
+                .map((row, metadata) -> {
+                    long latestSeq = row.get("latest_seq", Long.class);
+                    Long appliedSeq = row.get("applied_seq", Long.class);
+                    return new ReportVersion(latestSeq, appliedSeq != null && latestSeq <= appliedSeq);
+                })
+                .one();
+    }
+
+    /**
+     * The last {@code task_outbox} seq whose change is reflected in the rollups.
+     */
+    public Mono<Long> findCheckpoint() {
+        return databaseClient.sql("SELECT last_seq FROM task_rollup_checkpoint WHERE id = :id")
+                .bind("id", CHECKPOINT_ID)
+                .map((row, metadata) -> row.get("last_seq", Long.class))
+                .one();
+    }
+
+    public Mono<Long> saveCheckpoint(long lastSeq) {
+        return databaseClient.sql("UPDATE task_rollup_checkpoint SET last_seq = :lastSeq WHERE id = :id")
+                .bind("lastSeq", lastSeq)
+                .bind("id", CHECKPOINT_ID)
+                .fetch()
+                .rowsUpdated();
+    }
+}
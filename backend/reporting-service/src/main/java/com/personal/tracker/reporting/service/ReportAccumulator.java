@@ -0,0 +1,114 @@
+package com.personal.tracker.reporting.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.UnaryOperator;
+
+import com.personal.tracker.reporting.domain.TaskComplexity;
+import com.personal.tracker.reporting.domain.TaskCount;
+import com.personal.tracker.reporting.domain.TaskStatus;
+import com.personal.tracker.reporting.model.ApplicationSummary;
+import com.personal.tracker.reporting.model.ComplexityBreakdown;
+import com.personal.tracker.reporting.model.ReportResponse;
+import com.personal.tracker.reporting.model.ReportSortDirection;
+import com.personal.tracker.reporting.model.ReportSortField;
+import com.personal.tracker.reporting.model.StatusSummary;
+import com.personal.tracker.reporting.model.TrendPoint;
+
+/**
+ * Single-pass fold of aggregate rows into primitive counters. Applications are interned to dense ids on
+ * first sight; statuses and complexities are indexed by ordinal, so memory grows with the number of
+ * distinct applications and trend buckets, never with the number of rows folded. The requested sort is
+ * applied only to these small output lists.
+ */
+final class ReportAccumulator {
+
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+    private static final TaskComplexity[] COMPLEXITIES = TaskComplexity.values();
+    private static final Comparator<String> APPLICATION_ORDER = Comparator.nullsLast(Comparator.naturalOrder());
+
+    private final UnaryOperator<LocalDate> bucketOf;
+    private final Map<String, Integer> applicationIds = new HashMap<>();
+    private final List<String> applications = new ArrayList<>();
+    private long[] applicationCounts = new long[8];
+    private long[][] complexityCounts = new long[8][];
+    private final long[] statusCounts = new long[STATUSES.length];
+    private final TreeMap<LocalDate, long[]> bucketCounts = new TreeMap<>();
+
+    ReportAccumulator(UnaryOperator<LocalDate> bucketOf) {
+        this.bucketOf = bucketOf;
+    }
+
+    ReportAccumulator add(TaskCount row) {
+        int app = applicationId(row.application());
+        applicationCounts[app] += row.count();
+        complexityCounts[app][row.complexity().ordinal()] += row.count();
+        statusCounts[row.status().ordinal()] += row.count();
+        if (row.closedDay() != null) {
+            bucketCounts.computeIfAbsent(bucketOf.apply(row.closedDay()), day -> new long[1])[0] += row.count();
+        }
+        return this;
+    }
+
+    ReportResponse toResponse(ReportSortField sortField, ReportSortDirection sortDirection) {
+        boolean descending = sortDirection == ReportSortDirection.DESC;
+        Integer[] order = new Integer[applications.size()];
+        Arrays.setAll(order, i -> i);
+        Arrays.sort(order, Comparator.comparing(applications::get, APPLICATION_ORDER));
+
+        List<ApplicationSummary> appSummaries = new ArrayList<>(order.length);
+        List<ComplexityBreakdown> complexitySummaries = new ArrayList<>();
+        for (int app : order) {
+            String application = applications.get(app);
+            appSummaries.add(new ApplicationSummary(application, applicationCounts[app]));
+            for (TaskComplexity complexity : COMPLEXITIES) {
+                long count = complexityCounts[app][complexity.ordinal()];
+                if (count > 0) {
+                    complexitySummaries.add(new ComplexityBreakdown(application, complexity, count));
+                }
+            }
+        }
+
+        if (sortField == ReportSortField.COMPLEXITY) {
+            Comparator<ComplexityBreakdown> byComplexity = Comparator.comparing(ComplexityBreakdown::complexity);
+            complexitySummaries.sort((descending ? byComplexity.reversed() : byComplexity)
+                    .thenComparing(ComplexityBreakdown::application, APPLICATION_ORDER));
+        }
+
+        List<StatusSummary> statusSummaries = new ArrayList<>();
+        for (TaskStatus status : STATUSES) {
+            if (statusCounts[status.ordinal()] > 0) {
+                statusSummaries.add(new StatusSummary(status.name(), statusCounts[status.ordinal()]));
+            }
+        }
+        statusSummaries.sort(Comparator.comparing(StatusSummary::status));
+
+        List<TrendPoint> trend = new ArrayList<>(bucketCounts.size());
+        (sortField == ReportSortField.COMPLETION_DATE && descending ? bucketCounts.descendingMap() : bucketCounts)
+                .forEach((day, count) -> trend.add(new TrendPoint(day, count[0])));
+
+        return new ReportResponse(appSummaries, complexitySummaries, trend, statusSummaries);
+    }
+
+    private int applicationId(String application) {
+        Integer id = applicationIds.get(application);
+        if (id != null) {
+            return id;
+        }
+        int next = applications.size();
+        if (next == applicationCounts.length) {
+            applicationCounts = Arrays.copyOf(applicationCounts, next * 2);
+            complexityCounts = Arrays.copyOf(complexityCounts, next * 2);
+        }
+        complexityCounts[next] = new long[COMPLEXITIES.length];
+        applications.add(application);
+        applicationIds.put(application, next);
+        return next;
+    }
+}
@@ -0,0 +1,62 @@
+package com.personal.tracker.reporting.service;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.personal.tracker.reporting.domain.ReportVersion;
+import com.personal.tracker.reporting.model.ReportFilter;
+import com.personal.tracker.reporting.model.ReportResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Bounded cache of generated reports keyed by user, the user's {@link ReportVersion} and the filter. The version
+ * is read from the shared database on every request, so a task change or rollup refresh committed by any
+ * replica makes the user's cached reports unreachable on all of them; they then age out by size or TTL.
+ * Hit, miss and eviction counts are published as {@code cache.*{cache=reports}}.
+ */
+@Component
+public class ReportCache {
+
+    private record Key(String userId, ReportVersion version, ReportFilter filter) {
+    }
+
+    private final Cache<Key, ReportResponse> reports;
+
+    public ReportCache(MeterRegistry meterRegistry,
+            @Value("${reporting.cache.max-size:10000}") long maxSize,
+            @Value("${reporting.cache.ttl:PT2M}") Duration ttl) {
+        this.reports = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).recordStats().build();
+        CaffeineCacheMetrics.monitor(meterRegistry, reports, "reports");
+    }
+
+    /**
+     * Read {@code version} before loading, so a cached report is never older than the version it is kept under.
+     */
+    public Mono<ReportResponse> get(String userId, ReportVersion version, ReportFilter filter,
+            Supplier<Mono<ReportResponse>> loader) {
+        Key key = new Key(userId, version, filter);
+        ReportResponse cached = reports.getIfPresent(key);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return loader.get().doOnNext(report -> reports.put(key, report));
+    }
+
+    /**
+     * Drops the user's reports from this replica only. Rollup rewrites that leave the outbox and checkpoint
+     * alone (backfill, repair) do not change the version, so other replicas serve them until the TTL.
+     */
+    public void invalidate(String userId) {
+        reports.asMap().keySet().removeIf(key -> key.userId().equals(userId));
+    }
+
+    public void invalidateAll() {
+        reports.invalidateAll();
+    }
+}
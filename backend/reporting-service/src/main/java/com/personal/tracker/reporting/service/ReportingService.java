@@ -5,125 +5,51 @@ import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
 import java.time.temporal.TemporalAdjusters;
-import java.util.Comparator;
-import java.util.List;
-import java.util.Map;
-import java.util.UUID;
-import java.util.stream.Collectors;
 
-import com.personal.tracker.reporting.domain.TaskComplexity;
-import com.personal.tracker.reporting.domain.TaskRecord;
-import com.personal.tracker.reporting.model.ApplicationSummary;
-import com.personal.tracker.reporting.model.ComplexityBreakdown;
 import com.personal.tracker.reporting.model.ReportFilter;
 import com.personal.tracker.reporting.model.ReportResponse;
-import com.personal.tracker.reporting.model.ReportSortDirection;
-import com.personal.tracker.reporting.model.ReportSortField;
-import com.personal.tracker.reporting.model.StatusSummary;
 import com.personal.tracker.reporting.model.TimeWindow;
-import com.personal.tracker.reporting.model.TrendPoint;
-import org.springframework.data.domain.Sort;
-import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
-import org.springframework.data.relational.core.query.Criteria;
-import org.springframework.data.relational.core.query.Query;
+import com.personal.tracker.reporting.repository.TaskAggregateRepository;
+import com.personal.tracker.reporting.repository.TaskRollupRepository;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @Service
 public class ReportingService {
 
-    private final R2dbcEntityTemplate template;
+    private final TaskAggregateRepository aggregateRepository;
+    private final TaskRollupRepository rollupRepository;
+    private final ReportCache reportCache;
 
-    public ReportingService(R2dbcEntityTemplate template) {
-        this.template = template;
+    public ReportingService(TaskAggregateRepository aggregateRepository, TaskRollupRepository rollupRepository,
+            ReportCache reportCache) {
+        this.aggregateRepository = aggregateRepository;
+        this.rollupRepository = rollupRepository;
+        this.reportCache = reportCache;
     }
 
     public Mono<ReportResponse> generateReport(String userId, ReportFilter filter) {
-        Instant now = Instant.now();
-        Instant start = windowStart(now, filter.window());
-
-        Criteria criteria = Criteria.where("user_id").is(userId);
-
-        if (filter.application() != null && !filter.application().isBlank()) {
-            criteria = criteria.and("application").is(filter.application());
-        }
-        if (filter.complexity() != null) {
-            criteria = criteria.and("complexity").is(filter.complexity());
-        }
-
-        Sort sort = buildSort(filter.sortField(), filter.sortDirection());
-        Query query = Query.query(criteria).sort(sort);
-
-        return template.select(TaskRecord.class)
-            .matching(query)
-            .all()
-            .collectList()
-            .map(tasks -> aggregate(tasks, filter.window(), start, now));
-    }
-
-        private ReportResponse aggregate(List<TaskRecord> tasks, TimeWindow window, Instant start, Instant now) {
-        List<TaskRecord> inWindow = tasks.stream()
-            .filter(task -> isInWindow(task, start, now))
-            .toList();
-
-        List<ApplicationSummary> appSummaries = inWindow.stream()
-            .collect(Collectors.groupingBy(TaskRecord::getApplication, Collectors.counting()))
-            .entrySet()
-            .stream()
-            .map(e -> new ApplicationSummary(e.getKey(), e.getValue()))
-            .sorted(Comparator.comparing(ApplicationSummary::application))
-            .toList();
-
-        List<ComplexityBreakdown> complexitySummaries = inWindow.stream()
-            .collect(Collectors.groupingBy(task -> Map.entry(task.getApplication(), task.getComplexity()), Collectors.counting()))
-            .entrySet()
-            .stream()
-            .map(e -> new ComplexityBreakdown(e.getKey().getKey(), e.getKey().getValue(), e.getValue()))
-            .sorted(Comparator
-                .comparing(ComplexityBreakdown::application)
-                .thenComparing(cb -> cb.complexity().ordinal()))
-            .toList();
-
-        List<StatusSummary> statusSummaries = inWindow.stream()
-            .collect(Collectors.groupingBy(task -> task.getStatus().name(), Collectors.counting()))
-            .entrySet()
-            .stream()
-            .map(e -> new StatusSummary(e.getKey(), e.getValue()))
-            .sorted(Comparator.comparing(StatusSummary::status))
-            .toList();
-
-        List<TrendPoint> trend = inWindow.stream()
-            .filter(task -> task.getClosedAt() != null)
-            .collect(Collectors.groupingBy(task -> bucketStart(task.getClosedAt(), window), Collectors.counting()))
-            .entrySet()
-            .stream()
-            .sorted(Map.Entry.comparingByKey())
-            .map(e -> new TrendPoint(e.getKey(), e.getValue()))
-            .toList();
-
-        return new ReportResponse(appSummaries, complexitySummaries, trend, statusSummaries);
+        return rollupRepository.findReportVersion(userId)
+                .flatMap(version -> reportCache.get(userId, version, filter, () -> computeReport(userId, filter)));
     }
 
-        private boolean isInWindow(TaskRecord task, Instant start, Instant now) {
-        Instant effective = task.getClosedAt();
-        if (effective == null) {
-            effective = task.getArchivedAt();
-        }
-        if (effective == null) {
-            effective = task.getCreatedAt();
-        }
-        if (effective == null) {
-            return false;
-        }
-        return !effective.isBefore(start) && !effective.isAfter(now);
-        }
-
-    private Sort buildSort(ReportSortField field, ReportSortDirection direction) {
-        String property = field == ReportSortField.COMPLEXITY ? "complexity" : "closed_at";
-        Sort.Order order = direction == ReportSortDirection.ASC
-                ? Sort.Order.asc(property)
-                : Sort.Order.desc(property);
-        return Sort.by(order);
+    private Mono<ReportResponse> computeReport(String userId, ReportFilter filter) {
+        Instant now = Instant.now();
+        Instant start = windowStart(now, filter.window());
+        String application = filter.application() != null && !filter.application().isBlank() ? filter.application() : null;
+
+        // Whole UTC days come from the daily rollup; only the partial first day of the window is counted
+        // from raw tasks.
+        LocalDate firstWholeDay = start.atOffset(ZoneOffset.UTC).toLocalDate().plusDays(1);
+        Instant firstWholeDayStart = firstWholeDay.atStartOfDay(ZoneOffset.UTC).toInstant();
+        LocalDate today = now.atOffset(ZoneOffset.UTC).toLocalDate();
+
+        return Flux.concat(
+                aggregateRepository.countGroups(userId, application, filter.complexity(), start, firstWholeDayStart),
+                rollupRepository.findCounts(userId, application, filter.complexity(), firstWholeDay, today))
+            .reduceWith(() -> new ReportAccumulator(day -> bucketStart(day, filter.window())), ReportAccumulator::add)
+            .map(accumulator -> accumulator.toResponse(filter.sortField(), filter.sortDirection()));
     }
 
     private Instant windowStart(Instant now, TimeWindow window) {
@@ -136,8 +62,7 @@ public class ReportingService {
         };
     }
 
-    private LocalDate bucketStart(Instant closedAt, TimeWindow window) {
-        LocalDate date = closedAt.atZone(ZoneOffset.UTC).toLocalDate();
+    private LocalDate bucketStart(LocalDate date, TimeWindow window) {
         return switch (window) {
             case WEEKLY -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
             case MONTHLY -> date.withDayOfMonth(1);
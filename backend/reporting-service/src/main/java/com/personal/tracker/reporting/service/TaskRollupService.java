@@ -0,0 +1,157 @@
+package com.personal.tracker.reporting.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import com.personal.tracker.reporting.domain.RollupPartition;
+import com.personal.tracker.reporting.domain.TaskChange;
+import com.personal.tracker.reporting.repository.TaskChangeRepository;
+import com.personal.tracker.reporting.repository.TaskRollupRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Maintains {@code task_daily_rollup}. {@link #refresh()} tails task-service's {@code task_outbox} from the
+ * stored checkpoint and rebuilds only the (user, day) partitions the new changes touched. Each batch runs in
+ * one transaction under the repository's refresh lock, so replicas refreshing on the same schedule take turns
+ * instead of rebuilding the same partitions and racing on the checkpoint.
+ */
+@Service
+public class TaskRollupService {
+
+    private final TaskRollupRepository rollupRepository;
+    private final TaskChangeRepository changeRepository;
+    private final TransactionalOperator transactionalOperator;
+    private final ReportCache reportCache;
+    private final int batchSize;
+    private final Duration commitLag;
+    private final Duration outboxRetention;
+
+    public TaskRollupService(TaskRollupRepository rollupRepository, TaskChangeRepository changeRepository,
+            TransactionalOperator transactionalOperator, ReportCache reportCache,
+            @Value("${reporting.rollup.batch-size:500}") int batchSize,
+            @Value("${reporting.rollup.commit-lag:PT1M}") Duration commitLag,
+            @Value("${reporting.rollup.outbox-retention:P7D}") Duration outboxRetention) {
+        this.rollupRepository = rollupRepository;
+        this.changeRepository = changeRepository;
+        this.transactionalOperator = transactionalOperator;
+        this.reportCache = reportCache;
+        this.batchSize = batchSize;
+        this.commitLag = commitLag;
+        this.outboxRetention = outboxRetention;
+    }
+
+    /**
+     * Applies outbox changes in batches until caught up; returns the number of changes consumed.
+     */
+    public Mono<Long> refresh() {
+        return applyNextBatch()
+                .expand(consumed -> consumed == batchSize ? applyNextBatch() : Mono.empty())
+                .reduce(0L, Long::sum);
+    }
+
+    /**
+     * Drops outbox rows that are both applied and older than {@code reporting.rollup.outbox-retention}.
+     */
+    public Mono<Long> purgeAppliedChanges() {
+        return rollupRepository.findCheckpoint()
+                .flatMap(checkpoint -> changeRepository.deleteApplied(checkpoint, Instant.now().minus(outboxRetention)));
+    }
+
+    /**
+     * Rebuilds the partitions of the next batch and advances the checkpoint in one transaction, or consumes
+     * nothing when another replica holds the refresh lock. Advancing the checkpoint changes the affected
+     * users' {@code ReportVersion}, which retires their cached reports on every replica.
+     */
+    private Mono<Long> applyNextBatch() {
+        return transactionalOperator.transactional(Mono.defer(() -> rollupRepository.lockRefresh(false)
+                .flatMap(locked -> locked ? applyBatch(Instant.now().minus(commitLag)) : Mono.just(0L))));
+    }
+
+    private Mono<Long> applyBatch(Instant settledBefore) {
+        return rollupRepository.findCheckpoint()
+                .flatMap(checkpoint -> changeRepository.findAfter(checkpoint, batchSize)
+                        .collectList()
+                        .flatMap(changes -> Flux.fromIterable(changes)
+                                .flatMapIterable(TaskRollupService::partitionsOf)
+                                .distinct()
+                                .concatMap(rollupRepository::rebuildPartition)
+                                .then(Mono.defer(() -> {
+                                    long through = settledThrough(checkpoint, changes, settledBefore);
+                                    long consumed = changes.stream().filter(change -> change.seq() <= through).count();
+                                    return through > checkpoint
+                                            ? rollupRepository.saveCheckpoint(through).thenReturn(consumed)
+                                            : Mono.just(consumed);
+                                }))));
+    }
+
+    /**
+     * The highest seq the checkpoint may advance to. A seq is assigned at insert but only becomes visible
+     * at commit, so a gap may be a transaction still in flight: it is stepped over only once the row after
+     * it is older than the commit lag, by which time the missing seq must have been rolled back. Changes
+     * past an open gap are still applied now and simply re-applied next time; rebuilds are idempotent.
+     */
+    static long settledThrough(long checkpoint, List<TaskChange> changes, Instant settledBefore) {
+        long through = checkpoint;
+        for (TaskChange change : changes) {
+            if (change.seq() != through + 1 && !change.recordedAt().isBefore(settledBefore)) {
+                break;
+            }
+            through = change.seq();
+        }
+        return through;
+    }
+
+    private static List<RollupPartition> partitionsOf(TaskChange change) {
+        RollupPartition current = new RollupPartition(change.userId(), utcDay(change.effectiveAt()));
+        if (change.previousEffectiveAt() == null) {
+            return List.of(current);
+        }
+        return List.of(new RollupPartition(change.userId(), utcDay(change.previousEffectiveAt())), current);
+    }
+
+    private static LocalDate utcDay(Instant instant) {
+        return instant.atOffset(ZoneOffset.UTC).toLocalDate();
+    }
+
+    public Mono<Long> rebuildPartition(RollupPartition partition) {
+        return transactionalOperator.transactional(rollupRepository.rebuildPartition(partition))
+                .doOnSuccess(rows -> reportCache.invalidate(partition.userId()));
+    }
+
+    /**
+     * Backfill: recomputes all rollup rows for {@code userId}, or for every user when it is null. Waits for a
+     * running refresh batch to commit first.
+     */
+    public Mono<Long> rebuild(String userId) {
+        return transactionalOperator.transactional(rollupRepository.lockRefresh(true).then(rollupRepository.rebuild(userId)))
+                .doOnSuccess(rows -> {
+                    if (userId != null) {
+                        reportCache.invalidate(userId);
+                    } else {
+                        reportCache.invalidateAll();
+                    }
+                });
+    }
+
+    /**
+     * Consistency check: partitions whose rollup rows disagree with raw task counts. Partitions changed
+     * within the refresh interval are expected to show up until the next refresh.
+     */
+    public Flux<RollupPartition> findInconsistencies(String userId) {
+        return rollupRepository.findInconsistentPartitions(userId);
+    }
+
+    public Mono<Long> repair(String userId) {
+        return findInconsistencies(userId).collectList()
+                .flatMapMany(Flux::fromIterable)
+                .concatMap(this::rebuildPartition)
+                .count();
+    }
+}
@@ -1,28 +1,24 @@
-CREATE TABLE IF NOT EXISTS tasks (
-    id UUID PRIMARY KEY,
+-- tasks (with its effective_at column) and task_outbox belong to task-service's migrations. Startup stops here
+-- until they have run against this database.
+SELECT effective_at FROM tasks WHERE 1 = 0;
+SELECT seq FROM task_outbox WHERE 1 = 0;
+
+-- Per-user daily task counts keyed by the UTC day of effective_at. A NULL application is stored as ''.
+CREATE TABLE IF NOT EXISTS task_daily_rollup (
     user_id VARCHAR(100) NOT NULL,
-    title VARCHAR(255) NOT NULL,
-    description TEXT,
-    application VARCHAR(100),
+    rollup_day DATE NOT NULL,
+    application VARCHAR(100) NOT NULL,
     complexity VARCHAR(20) NOT NULL,
-    deadline_date DATE,
     status VARCHAR(20) NOT NULL,
-    created_at TIMESTAMP WITH TIME ZONE NOT NULL,
-    updated_at TIMESTAMP WITH TIME ZONE NOT NULL,
-    started_at TIMESTAMP WITH TIME ZONE,
-    closed_at TIMESTAMP WITH TIME ZONE,
-    archived_at TIMESTAMP WITH TIME ZONE
+    task_count BIGINT NOT NULL,
+    PRIMARY KEY (user_id, rollup_day, application, complexity, status)
 );
 
-ALTER TABLE IF EXISTS tasks ADD COLUMN IF NOT EXISTS started_at TIMESTAMP WITH TIME ZONE;
-
-CREATE TABLE IF NOT EXISTS task_notes (
-    id UUID PRIMARY KEY,
-    task_id UUID NOT NULL REFERENCES tasks(id) ON DELETE CASCADE,
-    user_id VARCHAR(100) NOT NULL,
-    content TEXT NOT NULL,
-    created_at TIMESTAMP WITH TIME ZONE NOT NULL
+CREATE TABLE IF NOT EXISTS task_rollup_checkpoint (
+    id VARCHAR(50) PRIMARY KEY,
+    last_seq BIGINT NOT NULL
 );
 
-CREATE INDEX IF NOT EXISTS idx_tasks_user ON tasks(user_id);
-CREATE INDEX IF NOT EXISTS idx_task_notes_task ON task_notes(task_id);
+INSERT INTO task_rollup_checkpoint (id, last_seq)
+SELECT 'daily', 0
+WHERE NOT EXISTS (SELECT 1 FROM task_rollup_checkpoint WHERE id = 'daily');
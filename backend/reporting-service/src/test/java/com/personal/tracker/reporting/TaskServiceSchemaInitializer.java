@@ -0,0 +1,62 @@
+package com.personal.tracker.reporting;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.r2dbc.connection.init.ResourceDatabasePopulator;
+
+/**
+ * Creates the tables reporting-service reads but task-service owns, by running task-service's own H2
+ * migrations (copied onto the test classpath by the pom) in version order before the context starts.
+ * reporting's schema.sql refuses to start without them, as it would against an unmigrated database.
+ */
+public class TaskServiceSchemaInitializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+
+    private static final Pattern VERSION = Pattern.compile("^V(\\d+)__.+\\.sql$");
+
+    @Override
+    public void initialize(ConfigurableApplicationContext context) {
+        Environment environment = context.getEnvironment();
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(environment.getRequiredProperty("spring.r2dbc.url"))
+                .mutate()
+                .option(ConnectionFactoryOptions.USER, environment.getProperty("spring.r2dbc.username", ""))
+                .option(ConnectionFactoryOptions.PASSWORD, environment.getProperty("spring.r2dbc.password", ""))
+                .build();
+        new ResourceDatabasePopulator(migrations())
+                .populate(ConnectionFactories.get(options))
+                .block();
+    }
+
+    private static Resource[] migrations() {
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+        List<Resource> scripts = new ArrayList<>();
+        try {
+            scripts.addAll(List.of(resolver.getResources("classpath:db/migration/V*.sql")));
+            scripts.addAll(List.of(resolver.getResources("classpath:db/migration/h2/V*.sql")));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        scripts.sort(Comparator.comparingInt(TaskServiceSchemaInitializer::version));
+        return scripts.toArray(Resource[]::new);
+    }
+
+    private static int version(Resource script) {
+        Matcher matcher = VERSION.matcher(script.getFilename());
+        if (!matcher.matches()) {
+            throw new IllegalStateException("Not a versioned migration: " + script.getFilename());
+        }
+        return Integer.parseInt(matcher.group(1));
+    }
+}
@@ -1,15 +1,18 @@
 package com.personal.tracker.reporting.controller;
 
+import com.personal.tracker.reporting.TaskServiceSchemaInitializer;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.reactive.server.WebTestClient;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @AutoConfigureWebTestClient
 @ActiveProfiles("test")
+@ContextConfiguration(initializers = TaskServiceSchemaInitializer.class)
 class HealthControllerTest {
 
     @Autowired
@@ -1,26 +1,34 @@
 package com.personal.tracker.reporting.controller;
 
 import java.time.Instant;
+import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.UUID;
 
 import com.personal.tracker.common.security.JwtService;
+import com.personal.tracker.reporting.TaskServiceSchemaInitializer;
+import com.personal.tracker.reporting.domain.RollupPartition;
 import com.personal.tracker.reporting.domain.TaskComplexity;
-import com.personal.tracker.reporting.domain.TaskRecord;
 import com.personal.tracker.reporting.domain.TaskStatus;
 import com.personal.tracker.reporting.repository.TaskRecordRepository;
+import com.personal.tracker.reporting.repository.TaskRollupRepository;
+import com.personal.tracker.reporting.service.TaskRollupService;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.reactive.server.WebTestClient;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @AutoConfigureWebTestClient
 @ActiveProfiles("test")
+@ContextConfiguration(initializers = TaskServiceSchemaInitializer.class)
 class ReportingControllerTest {
 
     @Autowired
@@ -32,6 +40,18 @@ class ReportingControllerTest {
     @Autowired
     private TaskRecordRepository repository;
 
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private TaskRollupService rollupService;
+
+    @Autowired
+    private TaskRollupRepository rollupRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private String aliceBearer;
 
     @BeforeEach
@@ -44,6 +64,7 @@ class ReportingControllerTest {
         insert("alice", "app2", TaskComplexity.MEDIUM, now.minus(5, ChronoUnit.DAYS));
         insert("alice", "app2", TaskComplexity.LOW, now.minus(50, ChronoUnit.DAYS)); // outside monthly window
         insert("bob", "app1", TaskComplexity.LOW, now.minus(1, ChronoUnit.DAYS)); // other user
+        rollupService.rebuild(null).block();
 
         aliceBearer = bearer("alice");
     }
@@ -85,6 +106,25 @@ class ReportingControllerTest {
                 .jsonPath("$.productivityTrend[0].completedCount").isEqualTo(1);
     }
 
+    @Test
+    void complexitySortOrdersTheComplexityDistribution() {
+        for (String direction : List.of("ASC", "DESC")) {
+            webTestClient.get()
+                    .uri(uriBuilder -> uriBuilder.path("/api/reports/tasks")
+                            .queryParam("window", "MONTHLY")
+                            .queryParam("application", "app1")
+                            .queryParam("sortField", "COMPLEXITY")
+                            .queryParam("sortDirection", direction)
+                            .build())
+                    .header("Authorization", aliceBearer)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody()
+                    .jsonPath("$.complexityDistribution.length()").isEqualTo(2)
+                    .jsonPath("$.complexityDistribution[0].complexity").isEqualTo(direction.equals("ASC") ? "MEDIUM" : "HIGH");
+        }
+    }
+
     @Test
     void ignoresOtherUsersData() {
         String bobBearer = bearer("bob");
@@ -99,18 +139,71 @@ class ReportingControllerTest {
                 .jsonPath("$.applicationSummaries[0].completedCount").isEqualTo(1);
     }
 
+    @Test
+    void repeatedReportIsCachedUntilRollupsChange() {
+        double hits = cacheHits();
+        monthlyReport().jsonPath("$.applicationSummaries[?(@.application=='app1')].completedCount").isEqualTo(2);
+        monthlyReport().jsonPath("$.applicationSummaries[?(@.application=='app1')].completedCount").isEqualTo(2);
+        if (cacheHits() != hits + 1) {
+            throw new AssertionError("Expected the repeated report to be served from the cache");
+        }
+
+        insert("alice", "app1", TaskComplexity.LOW, Instant.now().minus(3, ChronoUnit.DAYS));
+        rollupService.rebuild("alice").block();
+        monthlyReport().jsonPath("$.applicationSummaries[?(@.application=='app1')].completedCount").isEqualTo(3);
+    }
+
+    @Test
+    void cachedReportFollowsRollupsRefreshedByAnotherReplica() {
+        monthlyReport().jsonPath("$.applicationSummaries[?(@.application=='app1')].completedCount").isEqualTo(2);
+
+        // Another replica applies the change: only the shared tables move, nothing touches this cache.
+        Instant closedAt = Instant.now().minus(3, ChronoUnit.DAYS);
+        insert("alice", "app1", TaskComplexity.LOW, closedAt);
+        long seq = databaseClient.sql("""
+                        INSERT INTO task_outbox (task_id, user_id, event_type, effective_at, recorded_at)
+                        VALUES (:taskId, 'alice', 'CREATED', :effectiveAt, :recordedAt)""")
+                .bind("taskId", UUID.randomUUID())
+                .bind("effectiveAt", closedAt)
+                .bind("recordedAt", Instant.now())
+                .then()
+                .then(databaseClient.sql("SELECT MAX(seq) AS seq FROM task_outbox").map(row -> row.get("seq", Long.class)).one())
+                .block();
+        rollupRepository.rebuildPartition(new RollupPartition("alice", closedAt.atOffset(ZoneOffset.UTC).toLocalDate()))
+                .then(rollupRepository.saveCheckpoint(seq))
+                .block();
+
+        monthlyReport().jsonPath("$.applicationSummaries[?(@.application=='app1')].completedCount").isEqualTo(3);
+    }
+
+    private WebTestClient.BodyContentSpec monthlyReport() {
+        return webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/api/reports/tasks").queryParam("window", "MONTHLY").build())
+                .header("Authorization", aliceBearer)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody();
+    }
+
+    private double cacheHits() {
+        return meterRegistry.get("cache.gets").tag("cache", "reports").tag("result", "hit").functionCounter().count();
+    }
+
     private void insert(String userId, String app, TaskComplexity complexity, Instant closedAt) {
-        TaskRecord record = new TaskRecord();
-        record.setId(UUID.randomUUID());
-        record.setNewEntity(true);
-        record.setUserId(userId);
-        record.setTitle(app + " task");
-        record.setApplication(app);
-        record.setComplexity(complexity);
-        record.setStatus(TaskStatus.CLOSED);
-        record.setClosedAt(closedAt);
-        record.setCreatedAt(closedAt.minus(1, ChronoUnit.DAYS));
-        repository.save(record).block();
+        databaseClient.sql("""
+                        INSERT INTO tasks (id, user_id, title, application, complexity, status, created_at, updated_at, closed_at)
+                        VALUES (:id, :userId, :title, :application, :complexity, :status, :createdAt, :updatedAt, :closedAt)""")
+                .bind("id", UUID.randomUUID())
+                .bind("userId", userId)
+                .bind("title", app + " task")
+                .bind("application", app)
+                .bind("complexity", complexity.name())
+                .bind("status", TaskStatus.CLOSED.name())
+                .bind("createdAt", closedAt.minus(1, ChronoUnit.DAYS))
+                .bind("updatedAt", closedAt)
+                .bind("closedAt", closedAt)
+                .then()
+                .block();
     }
 
     private String bearer(String userId) {
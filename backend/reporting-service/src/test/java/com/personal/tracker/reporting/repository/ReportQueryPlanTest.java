@@ -0,0 +1,76 @@
+package com.personal.tracker.reporting.repository;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import com.personal.tracker.reporting.TaskServiceSchemaInitializer;
+import com.personal.tracker.reporting.domain.TaskComplexity;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@ContextConfiguration(initializers = TaskServiceSchemaInitializer.class)
+class ReportQueryPlanTest {
+
+    @Autowired
+    private TaskAggregateRepository aggregateRepository;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Test
+    void unfilteredReportQueryUsesEffectiveAtIndex() {
+        String plan = assertIndexScan(null, null);
+        if (!plan.toLowerCase().contains("idx_tasks_user_effective")) {
+            throw new AssertionError("Expected the effective_at index for an unfiltered report but got:\n" + plan);
+        }
+    }
+
+    @Test
+    void filteredReportQueryUsesApplicationComplexityIndex() {
+        String plan = assertIndexScan("app1", TaskComplexity.HIGH);
+        if (!plan.toLowerCase().contains("idx_tasks_user_application_complexity")) {
+            throw new AssertionError("Expected the application/complexity index for a filtered report but got:\n" + plan);
+        }
+    }
+
+    @Test
+    void reportVersionQueryUsesOutboxUserIndex() {
+        String plan = String.join("\n", databaseClient.sql("EXPLAIN " + TaskRollupRepository.REPORT_VERSION)
+                .bind("userId", "plan-user")
+                .map(row -> row.get(0, String.class))
+                .all()
+                .collectList()
+                .blockOptional()
+                .orElse(List.of()));
+        if (plan.contains("tableScan") || plan.contains("Seq Scan") || !plan.toLowerCase().contains("idx_task_outbox_user_seq")) {
+            throw new AssertionError("Expected the report version to read the outbox by user index but got:\n" + plan);
+        }
+    }
+
+    private String assertIndexScan(String application, TaskComplexity complexity) {
+        Instant now = Instant.now();
+        String sql = aggregateRepository.countGroupsSql(application != null, complexity != null);
+        String plan = String.join("\n", aggregateRepository
+                .bind(databaseClient.sql("EXPLAIN " + sql), "plan-user", application, complexity, now.minus(30, ChronoUnit.DAYS), now)
+                .map(row -> row.get(0, String.class))
+                .all()
+                .collectList()
+                .blockOptional()
+                .orElse(List.of()));
+
+        if (plan.contains("tableScan") || plan.contains("Seq Scan")) {
+            throw new AssertionError("Expected an index scan for " + sql + " but got:\n" + plan);
+        }
+        if (!plan.toLowerCase().contains("idx_tasks_")) {
+            throw new AssertionError("Expected a tasks index in plan for " + sql + " but got:\n" + plan);
+        }
+        return plan;
+    }
+}
@@ -0,0 +1,153 @@
+package com.personal.tracker.reporting.service;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import com.personal.tracker.reporting.TaskServiceSchemaInitializer;
+import com.personal.tracker.reporting.domain.RollupPartition;
+import com.personal.tracker.reporting.domain.TaskChange;
+import com.personal.tracker.reporting.domain.TaskComplexity;
+import com.personal.tracker.reporting.domain.TaskStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@ContextConfiguration(initializers = TaskServiceSchemaInitializer.class)
+class TaskRollupServiceTest {
+
+    private static final String USER = "rollup-user";
+
+    @Autowired
+    private TaskRollupService rollupService;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @BeforeEach
+    void setUp() {
+        databaseClient.sql("DELETE FROM tasks WHERE user_id = :userId").bind("userId", USER).then().block();
+        rollupService.rebuild(USER).block();
+    }
+
+    @Test
+    void refreshAppliesOutboxChanges() {
+        Instant now = Instant.now();
+        Instant createdAt = now.minus(3, ChronoUnit.DAYS);
+        Instant closedAt = now.minus(1, ChronoUnit.DAYS);
+        UUID closed = insert(TaskStatus.CLOSED, createdAt, closedAt);
+        recordChange(closed, null, createdAt);
+        recordChange(closed, createdAt, closedAt);
+        UUID open = insert(TaskStatus.OPEN, now.minus(2, ChronoUnit.DAYS), null);
+        recordChange(open, null, now.minus(2, ChronoUnit.DAYS));
+
+        List<RollupPartition> stale = inconsistencies();
+        if (stale.size() != 2) {
+            throw new AssertionError("Expected the two new tasks' days to be stale but got " + stale);
+        }
+
+        rollupService.refresh().block();
+        assertConsistent();
+
+        databaseClient.sql("UPDATE tasks SET complexity = :complexity, updated_at = :updatedAt WHERE id = :id")
+                .bind("complexity", TaskComplexity.HIGH.name())
+                .bind("updatedAt", Instant.now())
+                .bind("id", closed)
+                .then()
+                .block();
+        recordChange(closed, closedAt, closedAt);
+        rollupService.refresh().block();
+        assertConsistent();
+    }
+
+    @Test
+    void checkpointStopsAtYoungGapsOnly() {
+        Instant now = Instant.now();
+        Instant settledBefore = now.minusSeconds(60);
+        List<TaskChange> young = List.of(change(11, now), change(12, now), change(14, now), change(15, now));
+        if (TaskRollupService.settledThrough(10, young, settledBefore) != 12) {
+            throw new AssertionError("Expected the checkpoint to stop before a gap that may still commit");
+        }
+        List<TaskChange> old = List.of(change(11, now), change(12, now), change(14, now.minusSeconds(120)), change(15, now));
+        if (TaskRollupService.settledThrough(10, old, settledBefore) != 15) {
+            throw new AssertionError("Expected the checkpoint to step over a gap older than the commit lag");
+        }
+    }
+
+    @Test
+    void checkFindsAndRepairsDriftedPartitions() {
+        Instant now = Instant.now();
+        Instant closedAt = now.minus(4, ChronoUnit.DAYS);
+        insert(TaskStatus.CLOSED, now.minus(6, ChronoUnit.DAYS), closedAt);
+        rollupService.rebuild(USER).block();
+        assertConsistent();
+
+        databaseClient.sql("UPDATE task_daily_rollup SET task_count = task_count + 1 WHERE user_id = :userId")
+                .bind("userId", USER)
+                .then()
+                .block();
+        List<RollupPartition> drifted = inconsistencies();
+        if (!drifted.equals(List.of(new RollupPartition(USER, closedAt.atOffset(ZoneOffset.UTC).toLocalDate())))) {
+            throw new AssertionError("Expected the close day to be reported as drifted but got " + drifted);
+        }
+
+        rollupService.repair(USER).block();
+        assertConsistent();
+    }
+
+    private TaskChange change(long seq, Instant recordedAt) {
+        return new TaskChange(seq, USER, null, recordedAt, recordedAt);
+    }
+
+    private void recordChange(UUID taskId, Instant previousEffectiveAt, Instant effectiveAt) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql("""
+                        INSERT INTO task_outbox (task_id, user_id, event_type, previous_effective_at, effective_at, recorded_at)
+                        VALUES (:taskId, :userId, :eventType, :previousEffectiveAt, :effectiveAt, :recordedAt)""")
+                .bind("taskId", taskId)
+                .bind("userId", USER)
+                .bind("eventType", previousEffectiveAt == null ? "CREATED" : "UPDATED")
+                .bind("effectiveAt", effectiveAt)
+                .bind("recordedAt", Instant.now());
+        spec = previousEffectiveAt != null
+                ? spec.bind("previousEffectiveAt", previousEffectiveAt)
+                : spec.bindNull("previousEffectiveAt", Instant.class);
+        spec.then().block();
+    }
+
+    private List<RollupPartition> inconsistencies() {
+        return rollupService.findInconsistencies(USER).collectList().block();
+    }
+
+    private void assertConsistent() {
+        List<RollupPartition> inconsistent = inconsistencies();
+        if (!inconsistent.isEmpty()) {
+            throw new AssertionError("Expected rollups to match tasks but these partitions differ: " + inconsistent);
+        }
+    }
+
+    private UUID insert(TaskStatus status, Instant createdAt, Instant closedAt) {
+        UUID id = UUID.randomUUID();
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql("""
+                        INSERT INTO tasks (id, user_id, title, application, complexity, status, created_at, updated_at, closed_at)
+                        VALUES (:id, :userId, :title, :application, :complexity, :status, :createdAt, :updatedAt, :closedAt)""")
+                .bind("id", id)
+                .bind("userId", USER)
+                .bind("title", "rollup task")
+                .bind("application", "app1")
+                .bind("complexity", TaskComplexity.MEDIUM.name())
+                .bind("status", status.name())
+                .bind("createdAt", createdAt)
+                .bind("updatedAt", Instant.now());
+        spec = closedAt != null ? spec.bind("closedAt", closedAt) : spec.bindNull("closedAt", Instant.class);
+        spec.then().block();
+        return id;
+    }
+}
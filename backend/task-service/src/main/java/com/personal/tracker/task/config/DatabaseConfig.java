@@ -1,20 +1,20 @@
 package com.personal.tracker.task.config;
 
+import java.io.IOException;
+
 import io.r2dbc.spi.ConnectionFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.core.io.ClassPathResource;
 import org.springframework.r2dbc.connection.init.ConnectionFactoryInitializer;
-import org.springframework.r2dbc.connection.init.ResourceDatabasePopulator;
 
 @Configuration
 public class DatabaseConfig {
 
     @Bean
-    public ConnectionFactoryInitializer connectionFactoryInitializer(ConnectionFactory connectionFactory) {
+    public ConnectionFactoryInitializer connectionFactoryInitializer(ConnectionFactory connectionFactory) throws IOException {
         ConnectionFactoryInitializer initializer = new ConnectionFactoryInitializer();
         initializer.setConnectionFactory(connectionFactory);
-        initializer.setDatabasePopulator(new ResourceDatabasePopulator(new ClassPathResource("schema.sql")));
+        initializer.setDatabasePopulator(new VersionedSchemaPopulator(connectionFactory.getMetadata().getName()));
         return initializer;
     }
 }
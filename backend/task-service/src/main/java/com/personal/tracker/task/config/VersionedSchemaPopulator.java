@@ -0,0 +1,118 @@
+package com.personal.tracker.task.config;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import io.r2dbc.spi.Connection;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.r2dbc.connection.init.DatabasePopulator;
+import org.springframework.r2dbc.connection.init.ResourceDatabasePopulator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Applies {@code db/migration/V<n>__*.sql} scripts in version order, once each, recording them in
+ * {@code schema_migrations}. Scripts under {@code db/migration/<vendor>/} only run against that
+ * database (for example Postgres-only partial indexes that H2 cannot parse). Each script and its history
+ * row commit in one transaction, and on Postgres the whole run holds a session advisory lock so replicas
+ * starting together apply each version exactly once.
+ */
+public class VersionedSchemaPopulator implements DatabasePopulator {
+
+    private static final Pattern VERSION = Pattern.compile("^V(\\d+)__.+\\.sql$");
+    private static final String CREATE_HISTORY = """
+            CREATE TABLE IF NOT EXISTS schema_migrations (
+                version INT PRIMARY KEY,
+                script VARCHAR(255) NOT NULL,
+                installed_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP
+            )""";
+    private static final String LOCK = "SELECT pg_advisory_lock(hashtext('schema_migrations'))";
+    private static final String UNLOCK = "SELECT pg_advisory_unlock(hashtext('schema_migrations'))";
+
+    private final List<Migration> migrations;
+    private final boolean advisoryLocks;
+
+    public VersionedSchemaPopulator(String vendor) throws IOException {
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+        List<Migration> found = new ArrayList<>();
+        collect(resolver.getResources("classpath*:db/migration/V*.sql"), found);
+        collect(resolver.getResources("classpath*:db/migration/" + vendor.toLowerCase(Locale.ROOT) + "/V*.sql"), found);
+        found.sort(Comparator.comparingInt(Migration::version));
+        this.migrations = List.copyOf(found);
+        this.advisoryLocks = "postgresql".equalsIgnoreCase(vendor);
+    }
+
+    @Override
+    public Mono<Void> populate(Connection connection) {
+        if (!advisoryLocks) {
+            return migrate(connection);
+        }
+        return Mono.usingWhen(
+                execute(connection, LOCK).thenReturn(Boolean.TRUE),
+                locked -> migrate(connection),
+                locked -> execute(connection, UNLOCK),
+                (locked, error) -> execute(connection, UNLOCK),
+                locked -> execute(connection, UNLOCK));
+    }
+
+    private Mono<Void> migrate(Connection connection) {
+        return execute(connection, CREATE_HISTORY)
+                .thenMany(Flux.from(connection.createStatement("SELECT version FROM schema_migrations").execute()))
+                .flatMap(result -> result.map((row, metadata) -> row.get("version", Integer.class)))
+                .collect(HashSet<Integer>::new, Set::add)
+                .flatMapMany(applied -> Flux.fromIterable(migrations)
+                        .filter(migration -> !applied.contains(migration.version())))
+                .concatMap(migration -> apply(connection, migration))
+                .then();
+    }
+
+    private Mono<Void> apply(Connection connection, Migration migration) {
+        return Mono.from(connection.beginTransaction())
+                .then(new ResourceDatabasePopulator(migration.script()).populate(connection))
+                .then(record(connection, migration))
+                .then(Mono.from(connection.commitTransaction()))
+                .onErrorResume(error -> Mono.from(connection.rollbackTransaction())
+                        .onErrorResume(rollbackError -> Mono.empty())
+                        .then(Mono.error(error)));
+    }
+
+    private static Mono<Void> execute(Connection connection, String sql) {
+        return Flux.from(connection.createStatement(sql).execute())
+                .flatMap(result -> result.getRowsUpdated())
+                .then();
+    }
+
+    private Mono<Void> record(Connection connection, Migration migration) {
+        return Mono.from(connection.createStatement("INSERT INTO schema_migrations (version, script) VALUES ($1, $2)")
+                        .bind(0, migration.version())
+                        .bind(1, migration.script().getFilename())
+                        .execute())
+                .flatMap(result -> Mono.from(result.getRowsUpdated()))
+                .then();
+    }
+
+    private static void collect(Resource[] resources, List<Migration> into) {
+        for (Resource resource : resources) {
+            Matcher matcher = VERSION.matcher(resource.getFilename() == null ? "" : resource.getFilename());
+            if (!matcher.matches()) {
+                throw new IllegalStateException("Migration script is not named V<version>__<description>.sql: " + resource);
+            }
+            int version = Integer.parseInt(matcher.group(1));
+            if (into.stream().anyMatch(existing -> existing.version() == version)) {
+                throw new IllegalStateException("Duplicate migration version " + version + ": " + resource);
+            }
+            into.add(new Migration(version, resource));
+        }
+    }
+
+    private record Migration(int version, Resource script) {
+    }
+}
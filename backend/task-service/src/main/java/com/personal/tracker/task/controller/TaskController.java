@@ -3,6 +3,8 @@ package com.personal.tracker.task.controller;
 import java.util.UUID;
 
 import com.personal.tracker.common.error.ApiError;
+import com.personal.tracker.task.dto.TaskBulkRequest;
+import com.personal.tracker.task.dto.TaskBulkResponse;
 import com.personal.tracker.task.dto.TaskCreateRequest;
 import com.personal.tracker.task.dto.TaskNoteRequest;
 import com.personal.tracker.task.dto.TaskPageResponse;
@@ -17,6 +19,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -28,6 +31,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Mono;
@@ -64,13 +68,14 @@ public class TaskController {
     public Mono<ResponseEntity<TaskResponse>> createTask(@Valid @RequestBody TaskCreateRequest request, Authentication authentication) {
         String userId = authentication.getName();
         return taskService.createTask(userId, request)
-                .map(response -> ResponseEntity.status(HttpStatus.CREATED).body(response));
+                .map(response -> ResponseEntity.status(HttpStatus.CREATED).eTag(TaskETags.of(response)).body(response));
     }
 
     @PutMapping("/{id}")
         @Operation(
             summary = "Update task",
-            description = "Update mutable task fields for the authenticated user",
+            description = "Update mutable task fields for the authenticated user. Send the task's ETag as If-Match "
+                + "to only update it while nobody else has changed it",
             responses = {
                 @ApiResponse(responseCode = "200", description = "Task updated",
                     content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
@@ -82,19 +87,24 @@ public class TaskController {
                     content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
                         schema = @Schema(implementation = ApiError.class))),
                 @ApiResponse(responseCode = "404", description = "Task not found",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                        schema = @Schema(implementation = ApiError.class))),
+                @ApiResponse(responseCode = "409", description = "Task changed since the If-Match version, or concurrently",
                     content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
                         schema = @Schema(implementation = ApiError.class)))
             }
         )
-    public Mono<TaskResponse> updateTask(@PathVariable("id") UUID id, @Valid @RequestBody TaskUpdateRequest request, Authentication authentication) {
+    public Mono<ResponseEntity<TaskResponse>> updateTask(@PathVariable("id") UUID id, @Valid @RequestBody TaskUpdateRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch, Authentication authentication) {
         String userId = authentication.getName();
-        return taskService.updateTask(userId, id, request);
+        return taskService.updateTask(userId, id, request, TaskETags.expectedVersion(ifMatch))
+                .map(TaskController::withETag);
     }
 
     @PostMapping("/{id}/notes")
         @Operation(
             summary = "Append note",
-            description = "Append a note to a task while preserving existing notes",
+            description = "Append a note to a task while preserving existing notes. Honors If-Match like updates do",
             responses = {
                 @ApiResponse(responseCode = "200", description = "Note appended",
                     content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
@@ -106,19 +116,25 @@ public class TaskController {
                     content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
                         schema = @Schema(implementation = ApiError.class))),
                 @ApiResponse(responseCode = "404", description = "Task not found",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                        schema = @Schema(implementation = ApiError.class))),
+                @ApiResponse(responseCode = "409", description = "Task changed since the If-Match version, or concurrently",
                     content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
                         schema = @Schema(implementation = ApiError.class)))
             }
         )
-    public Mono<TaskResponse> appendNote(@PathVariable("id") UUID id, @Valid @RequestBody TaskNoteRequest request, Authentication authentication) {
+    public Mono<ResponseEntity<TaskResponse>> appendNote(@PathVariable("id") UUID id, @Valid @RequestBody TaskNoteRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch, Authentication authentication) {
         String userId = authentication.getName();
-        return taskService.appendNote(userId, id, request);
+        return taskService.appendNote(userId, id, request, TaskETags.expectedVersion(ifMatch))
+                .map(TaskController::withETag);
     }
 
     @PostMapping("/{id}/status")
         @Operation(
             summary = "Update status",
-            description = "Transition a task status, enforcing archival rules",
+            description = "Transition a task status, enforcing archival rules. With If-Match the transition fails with 409 "
+                + "if the task changed; without it a transition that races another write is retried",
             responses = {
                 @ApiResponse(responseCode = "200", description = "Status updated",
                     content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
@@ -130,47 +146,96 @@ public class TaskController {
                     content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
                         schema = @Schema(implementation = ApiError.class))),
                 @ApiResponse(responseCode = "404", description = "Task not found",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                        schema = @Schema(implementation = ApiError.class))),
+                @ApiResponse(responseCode = "409", description = "Task changed since the If-Match version, or concurrently",
                     content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
                         schema = @Schema(implementation = ApiError.class)))
             }
         )
-    public Mono<TaskResponse> updateStatus(@PathVariable("id") UUID id, @Valid @RequestBody TaskStatusUpdateRequest request, Authentication authentication) {
+    public Mono<ResponseEntity<TaskResponse>> updateStatus(@PathVariable("id") UUID id, @Valid @RequestBody TaskStatusUpdateRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch, Authentication authentication) {
         String userId = authentication.getName();
-        return taskService.updateStatus(userId, id, request);
+        return taskService.updateStatus(userId, id, request, TaskETags.expectedVersion(ifMatch))
+                .map(TaskController::withETag);
+    }
+
+    @PostMapping("/bulk")
+        @Operation(
+            summary = "Bulk operations",
+            description = "Apply up to " + TaskBulkRequest.MAX_OPERATIONS + " create, update, status and note operations in one "
+                + "transaction. Each operation gets its own result; invalid ones are skipped without failing the rest",
+            responses = {
+                @ApiResponse(responseCode = "200", description = "Operations processed",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                        schema = @Schema(implementation = TaskBulkResponse.class))),
+                @ApiResponse(responseCode = "400", description = "Invalid request body or too many operations",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                        schema = @Schema(implementation = ApiError.class))),
+                @ApiResponse(responseCode = "401", description = "Unauthorized",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                        schema = @Schema(implementation = ApiError.class)))
+            }
+        )
+    public Mono<TaskBulkResponse> bulk(@Valid @RequestBody TaskBulkRequest request, Authentication authentication) {
+        String userId = authentication.getName();
+        return taskService.applyBulk(userId, request.operations());
     }
 
     @GetMapping
         @Operation(
             summary = "List tasks",
-            description = "List tasks for the authenticated user with optional archived-only view, paging, and sorting",
+            description = "List tasks for the authenticated user with optional archived-only view, paging, and sorting. "
+                + "Pass cursor (empty for the first page) to page by keyset using the returned nextCursor instead of page numbers. "
+                + "Send the returned ETag as If-None-Match to get 304 while none of the listed tasks changed",
             responses = {
                 @ApiResponse(responseCode = "200", description = "Tasks listed",
                     content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
                         schema = @Schema(implementation = TaskPageResponse.class))),
+                @ApiResponse(responseCode = "304", description = "Unchanged since the If-None-Match ETag"),
+                @ApiResponse(responseCode = "400", description = "Invalid cursor",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                        schema = @Schema(implementation = ApiError.class))),
                 @ApiResponse(responseCode = "401", description = "Unauthorized",
                     content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
                         schema = @Schema(implementation = ApiError.class)))
             }
         )
-    public Mono<TaskPageResponse> listTasks(
+    public Mono<ResponseEntity<TaskPageResponse>> listTasks(
             @RequestParam(value = "includeArchived", defaultValue = "false") boolean includeArchived,
             @RequestParam(value = "page", defaultValue = "1") int page,
             @RequestParam(value = "size", defaultValue = "10") int size,
             @RequestParam(value = "sortField", defaultValue = "due") String sortField,
             @RequestParam(value = "sortDirection", defaultValue = "asc") String sortDirection,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "includeTotal", required = false) Boolean includeTotal,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
             Authentication authentication) {
         String userId = authentication.getName();
-        return taskService.listTasks(userId, includeArchived, page, size, sortField, sortDirection);
+        Mono<TaskPageResponse> listing = cursor != null
+                ? taskService.listTasksAfter(userId, includeArchived, cursor, size, sortField, sortDirection,
+                        Boolean.TRUE.equals(includeTotal))
+                : taskService.listTasks(userId, includeArchived, page, size, sortField, sortDirection,
+                        !Boolean.FALSE.equals(includeTotal));
+        // The validator is read before the page, so a write in between can only make the ETag older than the
+        // body, which costs the next poll a full response rather than hiding the write behind a 304.
+        return taskService.listVersion(userId, includeArchived)
+                .map(TaskETags::of)
+                .flatMap(etag -> TaskETags.matches(ifNoneMatch, etag)
+                        ? Mono.just(TaskController.<TaskPageResponse>notModified(etag))
+                        : listing.map(body -> ResponseEntity.ok().eTag(etag).body(body)));
     }
 
     @GetMapping("/{id}")
         @Operation(
             summary = "Get task",
-            description = "Retrieve a single task scoped to the authenticated user",
+            description = "Retrieve a single task scoped to the authenticated user, with its version as the ETag. "
+                + "With a matching If-None-Match the task is not loaded and 304 is returned",
             responses = {
                 @ApiResponse(responseCode = "200", description = "Task found",
                     content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
                         schema = @Schema(implementation = TaskResponse.class))),
+                @ApiResponse(responseCode = "304", description = "Unchanged since the If-None-Match ETag"),
                 @ApiResponse(responseCode = "401", description = "Unauthorized",
                     content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
                         schema = @Schema(implementation = ApiError.class))),
@@ -179,8 +244,26 @@ public class TaskController {
                         schema = @Schema(implementation = ApiError.class)))
             }
         )
-    public Mono<TaskResponse> getTask(@PathVariable("id") UUID id, Authentication authentication) {
+    public Mono<ResponseEntity<TaskResponse>> getTask(@PathVariable("id") UUID id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch, Authentication authentication) {
         String userId = authentication.getName();
-        return taskService.getTask(userId, id);
+        Mono<ResponseEntity<TaskResponse>> task = taskService.getTask(userId, id).map(TaskController::withETag);
+        if (ifNoneMatch == null) {
+            return task;
+        }
+        // A missing or foreign task has no version here and falls through to the 404 or 403 of the full read.
+        return taskService.taskVersion(userId, id)
+                .map(TaskETags::of)
+                .filter(etag -> TaskETags.matches(ifNoneMatch, etag))
+                .map(TaskController::<TaskResponse>notModified)
+                .switchIfEmpty(task);
+    }
+
+    private static ResponseEntity<TaskResponse> withETag(TaskResponse response) {
+        return ResponseEntity.ok().eTag(TaskETags.of(response)).body(response);
+    }
+
+    private static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
     }
 }
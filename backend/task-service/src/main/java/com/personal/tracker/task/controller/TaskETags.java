@@ -0,0 +1,68 @@
+package com.personal.tracker.task.controller;
+
+import com.personal.tracker.task.domain.TaskListVersion;
+import com.personal.tracker.task.dto.TaskResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * A task's ETag is its quoted version. If-Match takes one such tag, or {@code *} for any version. A task
+ * list's ETag is a weak tag over its {@link TaskListVersion}.
+ */
+final class TaskETags {
+
+    private TaskETags() {
+    }
+
+    static String of(TaskResponse task) {
+        return of(task.version());
+    }
+
+    static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+    static String of(TaskListVersion list) {
+        long lastUpdated = list.lastUpdatedAt() != null ? list.lastUpdatedAt().toEpochMilli() : 0;
+        return "W/\"" + list.taskCount() + "-" + list.versionSum() + "-" + lastUpdated + "\"";
+    }
+
+    /**
+     * Whether an If-None-Match header lists {@code etag}, using the weak comparison that header calls for.
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaque = opaque(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || opaque(tag).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String opaque(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
+    /**
+     * The version an If-Match header pins the write to, or null when there is no header or it is {@code *}.
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.parseLong(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException ignored) {
+                // falls through to the 400 below
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "If-Match must be a single task ETag such as \"3\"");
+    }
+}
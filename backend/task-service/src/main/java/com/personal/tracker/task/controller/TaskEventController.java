@@ -0,0 +1,50 @@
+package com.personal.tracker.task.controller;
+
+import com.personal.tracker.common.error.ApiError;
+import com.personal.tracker.task.dto.TaskChangeEvent;
+import com.personal.tracker.task.service.TaskChangeBroadcaster;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+@RestController
+@RequestMapping("/api/tasks")
+@Tag(name = "Tasks", description = "Task lifecycle management for authenticated users")
+@SecurityRequirement(name = "bearerAuth")
+public class TaskEventController {
+
+    private final TaskChangeBroadcaster taskChangeBroadcaster;
+
+    public TaskEventController(TaskChangeBroadcaster taskChangeBroadcaster) {
+        this.taskChangeBroadcaster = taskChangeBroadcaster;
+    }
+
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+        @Operation(
+            summary = "Task change stream",
+            description = "Server-sent events for every committed change to the authenticated user's tasks, named by "
+                + "change type, with heartbeat comments in between. Events carry the task id and version only; re-read "
+                + "the task or list with If-None-Match. A RESYNC event means changes may have been missed",
+            responses = {
+                @ApiResponse(responseCode = "200", description = "Event stream",
+                    content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                        schema = @Schema(implementation = TaskChangeEvent.class))),
+                @ApiResponse(responseCode = "401", description = "Unauthorized",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                        schema = @Schema(implementation = ApiError.class)))
+            }
+        )
+    public Flux<ServerSentEvent<TaskChangeEvent>> events(Authentication authentication) {
+        return taskChangeBroadcaster.stream(authentication.getName());
+    }
+}
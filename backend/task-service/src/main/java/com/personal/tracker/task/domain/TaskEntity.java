@@ -6,6 +6,7 @@ import java.util.UUID;
 
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.Transient;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.relational.core.mapping.Column;
 import org.springframework.data.relational.core.mapping.Table;
 import org.springframework.data.domain.Persistable;
@@ -52,6 +53,10 @@ public class TaskEntity implements Persistable<UUID> {
     @Column("archived_at")
     private Instant archivedAt;
 
+    @Version
+    @Column("version")
+    private Long version;
+
     @Transient
     private boolean isNew = false;
 
@@ -158,6 +163,14 @@ public class TaskEntity implements Persistable<UUID> {
         this.archivedAt = archivedAt;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public UUID getId() {
         return id;
@@ -0,0 +1,7 @@
+package com.personal.tracker.task.domain;
+
+public enum TaskEventType {
+    CREATED,
+    UPDATED,
+    STATUS_CHANGED
+}
@@ -0,0 +1,10 @@
+package com.personal.tracker.task.domain;
+
+import java.time.Instant;
+
+/**
+ * Summary of one of a user's task lists that changes whenever the list does. Every write bumps a task's
+ * version, so the version sum also moves for note appends, which leave {@code updatedAt} alone.
+ */
+public record TaskListVersion(long taskCount, long versionSum, Instant lastUpdatedAt) {
+}
@@ -0,0 +1,93 @@
+package com.personal.tracker.task.domain;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * A task mutation recorded in the same transaction as the task row. {@code previousEffectiveAt} and
+ * {@code effectiveAt} bracket the change so consumers can tell which reporting days it touched.
+ */
+@Table("task_outbox")
+public class TaskOutboxEntity {
+
+    @Id
+    @Column("seq")
+    private Long seq;
+
+    @Column("task_id")
+    private UUID taskId;
+
+    @Column("user_id")
+    private String userId;
+
+    @Column("event_type")
+    private TaskEventType eventType;
+
+    @Column("previous_effective_at")
+    private Instant previousEffectiveAt;
+
+    @Column("effective_at")
+    private Instant effectiveAt;
+
+    @Column("recorded_at")
+    private Instant recordedAt;
+
+    public TaskOutboxEntity() {
+    }
+
+    public Long getSeq() {
+        return seq;
+    }
+
+    public UUID getTaskId() {
+        return taskId;
+    }
+
+    public void setTaskId(UUID taskId) {
+        this.taskId = taskId;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public TaskEventType getEventType() {
+        return eventType;
+    }
+
+    public void setEventType(TaskEventType eventType) {
+        this.eventType = eventType;
+    }
+
+    public Instant getPreviousEffectiveAt() {
+        return previousEffectiveAt;
+    }
+
+    public void setPreviousEffectiveAt(Instant previousEffectiveAt) {
+        this.previousEffectiveAt = previousEffectiveAt;
+    }
+
+    public Instant getEffectiveAt() {
+        return effectiveAt;
+    }
+
+    public void setEffectiveAt(Instant effectiveAt) {
+        this.effectiveAt = effectiveAt;
+    }
+
+    public Instant getRecordedAt() {
+        return recordedAt;
+    }
+
+    public void setRecordedAt(Instant recordedAt) {
+        this.recordedAt = recordedAt;
+    }
+}
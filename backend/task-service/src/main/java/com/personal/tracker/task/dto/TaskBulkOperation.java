@@ -0,0 +1,29 @@
+package com.personal.tracker.task.dto;
+
+import java.util.UUID;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * One item of a bulk request. {@code taskId} is required for every type except CREATE, and only the payload
+ * matching {@code type} is read. An optional {@code version} works like If-Match on the single-task endpoints:
+ * the operation fails with 409 unless the task is still at that version.
+ */
+public record TaskBulkOperation(
+        @NotNull Type type,
+        UUID taskId,
+        @Valid TaskCreateRequest create,
+        @Valid TaskUpdateRequest update,
+        @Valid TaskStatusUpdateRequest status,
+        @Valid TaskNoteRequest note,
+        Long version
+) {
+
+    public enum Type {
+        CREATE,
+        UPDATE,
+        STATUS,
+        NOTE
+    }
+}
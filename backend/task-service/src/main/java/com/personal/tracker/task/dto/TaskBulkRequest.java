@@ -0,0 +1,15 @@
+package com.personal.tracker.task.dto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+public record TaskBulkRequest(
+        @NotEmpty @Size(max = TaskBulkRequest.MAX_OPERATIONS) List<@Valid @NotNull TaskBulkOperation> operations
+) {
+
+    public static final int MAX_OPERATIONS = 200;
+}
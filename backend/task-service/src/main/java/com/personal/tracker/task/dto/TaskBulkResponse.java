@@ -0,0 +1,6 @@
+package com.personal.tracker.task.dto;
+
+import java.util.List;
+
+public record TaskBulkResponse(List<TaskBulkResult> results) {
+}
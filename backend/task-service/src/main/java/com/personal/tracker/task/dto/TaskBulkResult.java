@@ -0,0 +1,10 @@
+package com.personal.tracker.task.dto;
+
+import java.util.UUID;
+
+/**
+ * Outcome of the operation at {@code index}: an HTTP-style {@code status}, and either the task as it stands
+ * after the whole batch or the reason the operation was skipped.
+ */
+public record TaskBulkResult(int index, int status, UUID taskId, String error, TaskResponse task) {
+}
@@ -0,0 +1,25 @@
+package com.personal.tracker.task.dto;
+
+import java.util.UUID;
+
+import com.personal.tracker.task.domain.TaskEntity;
+
+/**
+ * Pushed on the task event stream when one of the user's tasks changes. It carries no task fields: clients
+ * re-read what they show, and the ETag endpoints make that cheap. RESYNC has no task and means events may
+ * have been missed, so everything shown should be re-read.
+ */
+public record TaskChangeEvent(String userId, UUID taskId, Type type, Long version) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        STATUS_CHANGED,
+        NOTE_APPENDED,
+        RESYNC
+    }
+
+    public static TaskChangeEvent of(TaskEntity task, Type type) {
+        return new TaskChangeEvent(task.getUserId(), task.getId(), type, task.getVersion());
+    }
+}
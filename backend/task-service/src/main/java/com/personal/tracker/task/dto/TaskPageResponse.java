@@ -4,10 +4,11 @@ import java.util.List;
 
 public record TaskPageResponse(
         List<TaskResponse> content,
-        int page,
+        Integer page,
         int size,
-        long totalElements,
-        int totalPages,
-        boolean includeArchived
+        Long totalElements,
+        Integer totalPages,
+        boolean includeArchived,
+        String nextCursor
 ) {
 }
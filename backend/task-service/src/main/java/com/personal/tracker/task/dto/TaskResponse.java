@@ -21,6 +21,7 @@ public record TaskResponse(
         Instant startedAt,
         Instant closedAt,
         Instant archivedAt,
-        List<TaskNoteResponse> notes
+        List<TaskNoteResponse> notes,
+        Long version
 ) {
 }
@@ -0,0 +1,144 @@
+package com.personal.tracker.task.repository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+import com.personal.tracker.task.domain.TaskEntity;
+import com.personal.tracker.task.domain.TaskNoteEntity;
+import com.personal.tracker.task.domain.TaskOutboxEntity;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Multi-row reads and writes for bulk operations. Each write sends all of its rows as one batched statement
+ * on the caller's connection, so inside a transaction they commit or roll back together.
+ */
+@Repository
+public class TaskBatchRepository {
+
+    static final String TASK_COLUMNS = "id, user_id, title, description, application, complexity, deadline_date,"
+            + " status, created_at, updated_at, started_at, closed_at, archived_at, version";
+
+    private final DatabaseClient databaseClient;
+    private final R2dbcEntityTemplate template;
+
+    public TaskBatchRepository(DatabaseClient databaseClient, R2dbcEntityTemplate template) {
+        this.databaseClient = databaseClient;
+        this.template = template;
+    }
+
+    /**
+     * One lookup for any number of ids; the single array parameter keeps the statement text, and so its
+     * cached plan, the same for every batch size.
+     */
+    public Flux<TaskEntity> findAllById(Collection<UUID> ids) {
+        return databaseClient.sql("SELECT " + TASK_COLUMNS + " FROM tasks WHERE id = ANY(:ids)")
+                .bind("ids", ids.toArray(UUID[]::new))
+                .map((row, metadata) -> template.getConverter().read(TaskEntity.class, row, metadata))
+                .all();
+    }
+
+    public Mono<Long> insertTasks(List<TaskEntity> tasks) {
+        return executeBatch("INSERT INTO tasks (" + TASK_COLUMNS + ")"
+                + " VALUES ($1, $2, $3, $4, $5, $6, $7, $8, $9, $10, $11, $12, $13, $14)", tasks, (statement, task) -> {
+                    statement.bind(0, task.getId());
+                    statement.bind(1, task.getUserId());
+                    bindTaskFields(statement, 2, task);
+                    bind(statement, 8, task.getCreatedAt(), Instant.class);
+                    bind(statement, 9, task.getUpdatedAt(), Instant.class);
+                    bind(statement, 10, task.getStartedAt(), Instant.class);
+                    bind(statement, 11, task.getClosedAt(), Instant.class);
+                    bind(statement, 12, task.getArchivedAt(), Instant.class);
+                    statement.bind(13, task.getVersion());
+                });
+    }
+
+    /**
+     * Writes each task over the row at the version it was read with and bumps that version. Returns how many
+     * rows matched, so a result short of {@code tasks.size()} means another request changed one of them first.
+     */
+    public Mono<Long> updateTasks(List<TaskEntity> tasks) {
+        return executeBatch("""
+                UPDATE tasks SET title = $1, description = $2, application = $3, complexity = $4, deadline_date = $5,
+                       status = $6, updated_at = $7, started_at = $8, closed_at = $9, archived_at = $10,
+                       version = version + 1
+                WHERE id = $11 AND version = $12""", tasks, (statement, task) -> {
+                    bindTaskFields(statement, 0, task);
+                    bind(statement, 6, task.getUpdatedAt(), Instant.class);
+                    bind(statement, 7, task.getStartedAt(), Instant.class);
+                    bind(statement, 8, task.getClosedAt(), Instant.class);
+                    bind(statement, 9, task.getArchivedAt(), Instant.class);
+                    statement.bind(10, task.getId());
+                    statement.bind(11, task.getVersion());
+                });
+    }
+
+    public Mono<Long> insertNotes(List<TaskNoteEntity> notes) {
+        return executeBatch("INSERT INTO task_notes (id, task_id, user_id, content, created_at) VALUES ($1, $2, $3, $4, $5)",
+                notes, (statement, note) -> {
+                    statement.bind(0, note.getId());
+                    statement.bind(1, note.getTaskId());
+                    statement.bind(2, note.getUserId());
+                    statement.bind(3, note.getContent());
+                    statement.bind(4, note.getCreatedAt());
+                });
+    }
+
+    public Mono<Long> insertOutbox(List<TaskOutboxEntity> events) {
+        return executeBatch("""
+                INSERT INTO task_outbox (task_id, user_id, event_type, previous_effective_at, effective_at, recorded_at)
+                VALUES ($1, $2, $3, $4, $5, $6)""", events, (statement, event) -> {
+                    statement.bind(0, event.getTaskId());
+                    statement.bind(1, event.getUserId());
+                    statement.bind(2, event.getEventType().name());
+                    bind(statement, 3, event.getPreviousEffectiveAt(), Instant.class);
+                    statement.bind(4, event.getEffectiveAt());
+                    statement.bind(5, event.getRecordedAt());
+                });
+    }
+
+    // title, description, application, complexity, deadline_date, status from the given position on.
+    private static void bindTaskFields(Statement statement, int from, TaskEntity task) {
+        statement.bind(from, task.getTitle());
+        bind(statement, from + 1, task.getDescription(), String.class);
+        bind(statement, from + 2, task.getApplication(), String.class);
+        statement.bind(from + 3, task.getComplexity().name());
+        bind(statement, from + 4, task.getDeadlineDate(), LocalDate.class);
+        statement.bind(from + 5, task.getStatus().name());
+    }
+
+    private static void bind(Statement statement, int index, Object value, Class<?> type) {
+        if (value == null) {
+            statement.bindNull(index, type);
+        } else {
+            statement.bind(index, value);
+        }
+    }
+
+    private <T> Mono<Long> executeBatch(String sql, List<T> rows, BiConsumer<Statement, T> binder) {
+        if (rows.isEmpty()) {
+            return Mono.just(0L);
+        }
+        return databaseClient.inConnection(connection -> {
+            Statement statement = connection.createStatement(sql);
+            for (int i = 0; i < rows.size(); i++) {
+                if (i > 0) {
+                    statement.add();
+                }
+                binder.accept(statement, rows.get(i));
+            }
+            return Flux.from(statement.execute())
+                    .flatMap(Result::getRowsUpdated)
+                    .reduce(0L, Long::sum);
+        });
+    }
+}
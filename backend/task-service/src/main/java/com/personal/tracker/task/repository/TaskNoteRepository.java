@@ -1,5 +1,6 @@
 package com.personal.tracker.task.repository;
 
+import java.util.Collection;
 import java.util.UUID;
 
 import com.personal.tracker.task.domain.TaskNoteEntity;
@@ -9,4 +10,6 @@ import reactor.core.publisher.Flux;
 public interface TaskNoteRepository extends ReactiveCrudRepository<TaskNoteEntity, UUID> {
 
     Flux<TaskNoteEntity> findByTaskId(UUID taskId);
+
+    Flux<TaskNoteEntity> findByTaskIdInOrderByCreatedAtAsc(Collection<UUID> taskIds);
 }
@@ -0,0 +1,12 @@
+package com.personal.tracker.task.repository;
+
+import java.util.UUID;
+
+import com.personal.tracker.task.domain.TaskOutboxEntity;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
+
+public interface TaskOutboxRepository extends ReactiveCrudRepository<TaskOutboxEntity, Long> {
+
+    Flux<TaskOutboxEntity> findByTaskIdOrderBySeqAsc(UUID taskId);
+}
@@ -3,16 +3,42 @@ package com.personal.tracker.task.repository;
 import java.util.UUID;
 
 import com.personal.tracker.task.domain.TaskEntity;
+import com.personal.tracker.task.domain.TaskListVersion;
 import com.personal.tracker.task.domain.TaskStatus;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 public interface TaskRepository extends ReactiveCrudRepository<TaskEntity, UUID> {
 
+    String ACTIVE_LIST_VERSION = """
+            SELECT COUNT(*) AS task_count, CAST(COALESCE(SUM(version), 0) AS BIGINT) AS version_sum,
+                   MAX(updated_at) AS last_updated_at
+            FROM tasks WHERE user_id = :userId AND status <> 'CLOSED'""";
+
+    String ARCHIVED_LIST_VERSION = """
+            SELECT COUNT(*) AS task_count, CAST(COALESCE(SUM(version), 0) AS BIGINT) AS version_sum,
+                   MAX(updated_at) AS last_updated_at
+            FROM tasks WHERE user_id = :userId AND status = 'CLOSED'""";
+
     Flux<TaskEntity> findByUserId(String userId);
 
     Flux<TaskEntity> findByUserIdAndStatusNot(String userId, TaskStatus status);
 
     Mono<TaskEntity> findByIdAndUserId(UUID id, String userId);
+
+    @Query("SELECT version FROM tasks WHERE id = :id AND user_id = :userId")
+    Mono<Long> findVersion(UUID id, String userId);
+
+    /**
+     * Validator for the user's active list, answered from the covering list-version index without touching
+     * the table or task_notes. Separate from {@link #archivedListVersion} so each literal status predicate
+     * can match its partial index.
+     */
+    @Query(ACTIVE_LIST_VERSION)
+    Mono<TaskListVersion> activeListVersion(String userId);
+
+    @Query(ARCHIVED_LIST_VERSION)
+    Mono<TaskListVersion> archivedListVersion(String userId);
 }
@@ -0,0 +1,108 @@
+package com.personal.tracker.task.repository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.function.UnaryOperator;
+
+import com.personal.tracker.task.domain.TaskComplexity;
+import com.personal.tracker.task.domain.TaskEntity;
+import com.personal.tracker.task.domain.TaskStatus;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Single-statement updates of one task that only match while it belongs to the user and is not CLOSED, and
+ * return the updated row. An empty result means one of those conditions failed; the caller works out which.
+ * Every update bumps the task's version; given an {@code expectedVersion} it also only matches while the
+ * task is still at that version. Postgres returns the row with RETURNING, H2 through a FINAL TABLE query
+ * over the same UPDATE.
+ */
+@Repository
+public class TaskUpdateRepository {
+
+    private final DatabaseClient databaseClient;
+    private final R2dbcEntityTemplate template;
+    private final boolean h2;
+
+    public TaskUpdateRepository(DatabaseClient databaseClient, R2dbcEntityTemplate template) {
+        this.databaseClient = databaseClient;
+        this.template = template;
+        this.h2 = "H2".equalsIgnoreCase(databaseClient.getConnectionFactory().getMetadata().getName());
+    }
+
+    public Mono<TaskEntity> updateFields(UUID id, String userId, Long expectedVersion, String title, String description,
+            String application, TaskComplexity complexity, LocalDate deadlineDate, Instant now) {
+        return updateReturning(id, userId, expectedVersion, """
+                        title = :title, description = :description, application = :application, complexity = :complexity,
+                        deadline_date = :deadlineDate, updated_at = :now""", "",
+                spec -> bindOrNull(bindOrNull(spec, "description", description, String.class), "deadlineDate", deadlineDate, LocalDate.class)
+                        .bind("title", title)
+                        .bind("application", application)
+                        .bind("complexity", complexity.name())
+                        .bind("now", now));
+    }
+
+    public Mono<TaskEntity> start(UUID id, String userId, Long expectedVersion, Instant startedAt, Instant now) {
+        return updateReturning(id, userId, expectedVersion, "status = :status, started_at = :startedAt, updated_at = :now", "",
+                spec -> spec.bind("status", TaskStatus.IN_PROGRESS.name())
+                        .bind("startedAt", startedAt)
+                        .bind("now", now));
+    }
+
+    public Mono<TaskEntity> changeStatus(UUID id, String userId, Long expectedVersion, TaskStatus status, Instant now) {
+        return updateReturning(id, userId, expectedVersion, "status = :status, updated_at = :now", "",
+                spec -> spec.bind("status", status.name()).bind("now", now));
+    }
+
+    /**
+     * Closes the task at {@code closedAt}. With a {@code startedAt} it fills in a missing start; without one the
+     * task must already have started no later than the close day.
+     */
+    public Mono<TaskEntity> close(UUID id, String userId, Long expectedVersion, Instant startedAt, Instant closedAt,
+            Instant now) {
+        String assignments = "status = :status, closed_at = :closedAt, archived_at = :closedAt, updated_at = :now"
+                + (startedAt != null ? ", started_at = COALESCE(started_at, :startedAt)" : "");
+        String condition = startedAt != null ? "" : " AND started_at IS NOT NULL AND started_at < :closeDayEnd";
+        return updateReturning(id, userId, expectedVersion, assignments, condition, spec -> {
+            spec = spec.bind("status", TaskStatus.CLOSED.name())
+                    .bind("closedAt", closedAt)
+                    .bind("now", now);
+            return startedAt != null
+                    ? spec.bind("startedAt", startedAt)
+                    : spec.bind("closeDayEnd", closedAt.plus(Duration.ofDays(1)));
+        });
+    }
+
+    /**
+     * Bumps only the version, for changes that live outside the task row such as a new note.
+     */
+    public Mono<TaskEntity> touch(UUID id, String userId, Long expectedVersion) {
+        return updateReturning(id, userId, expectedVersion, null, "", UnaryOperator.identity());
+    }
+
+    private Mono<TaskEntity> updateReturning(UUID id, String userId, Long expectedVersion, String assignments,
+            String condition, UnaryOperator<DatabaseClient.GenericExecuteSpec> binder) {
+        String update = "UPDATE tasks SET " + (assignments != null ? assignments + ", " : "") + "version = version + 1"
+                + " WHERE id = :id AND user_id = :userId AND status <> 'CLOSED'" + condition
+                + (expectedVersion != null ? " AND version = :expectedVersion" : "");
+        String sql = h2
+                ? "SELECT " + TaskBatchRepository.TASK_COLUMNS + " FROM FINAL TABLE (" + update + ")"
+                : update + " RETURNING " + TaskBatchRepository.TASK_COLUMNS;
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql).bind("id", id).bind("userId", userId);
+        if (expectedVersion != null) {
+            spec = spec.bind("expectedVersion", expectedVersion);
+        }
+        return binder.apply(spec)
+                .map((row, metadata) -> template.getConverter().read(TaskEntity.class, row, metadata))
+                .one();
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindOrNull(DatabaseClient.GenericExecuteSpec spec, String name,
+            Object value, Class<?> type) {
+        return value != null ? spec.bind(name, value) : spec.bindNull(name, type);
+    }
+}
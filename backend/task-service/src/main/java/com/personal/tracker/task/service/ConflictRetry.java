@@ -0,0 +1,31 @@
+package com.personal.tracker.task.service;
+
+import java.time.Duration;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.util.retry.Retry;
+
+/**
+ * Re-runs an optimistic write that lost a race with another request (409) a few times with jittered backoff,
+ * re-reading the task on every attempt. Only for writes the client did not pin to a version with If-Match;
+ * those must report the conflict instead. After the last attempt the 409 itself is returned.
+ */
+final class ConflictRetry {
+
+    static final int MAX_RETRIES = 3;
+    static final Duration FIRST_BACKOFF = Duration.ofMillis(20);
+
+    private ConflictRetry() {
+    }
+
+    static Retry onConflict() {
+        return Retry.backoff(MAX_RETRIES, FIRST_BACKOFF)
+                .filter(ConflictRetry::isConflict)
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+    }
+
+    static boolean isConflict(Throwable error) {
+        return error instanceof ResponseStatusException e && e.getStatusCode() == HttpStatus.CONFLICT;
+    }
+}
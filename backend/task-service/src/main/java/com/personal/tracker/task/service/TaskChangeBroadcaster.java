@@ -0,0 +1,214 @@
+package com.personal.tracker.task.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.personal.tracker.task.dto.TaskChangeEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.postgresql.api.Notification;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.postgresql.api.PostgresqlResult;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Wrapped;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.reactive.TransactionSynchronization;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import reactor.core.Disposable;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+/**
+ * Streams task changes to the users they belong to. Publishing happens inside the writer's transaction, so
+ * only committed changes go out. On Postgres every event goes through NOTIFY on {@code task.events.channel},
+ * and each replica relays what it hears on one dedicated LISTEN connection to its own subscribers. Other
+ * databases (H2 in tests) dispatch locally after commit. Each subscriber buffers up to
+ * {@code task.events.buffer-size} events for a slow client and drops the oldest beyond that; a comment every
+ * {@code task.events.heartbeat} keeps idle connections open. Publishes {@code task.events.subscribers} and
+ * {@code task.events.dropped}.
+ */
+@Component
+public class TaskChangeBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskChangeBroadcaster.class);
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+    private static final Duration RECONNECT_DELAY = Duration.ofSeconds(3);
+
+    private final ConnectionFactory connectionFactory;
+    private final DatabaseClient databaseClient;
+    private final ObjectMapper objectMapper;
+    private final boolean postgres;
+    private final String channel;
+    private final int bufferSize;
+    private final Duration heartbeat;
+    private final Counter dropped;
+    private final Map<String, Set<FluxSink<ServerSentEvent<TaskChangeEvent>>>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicBoolean listenedBefore = new AtomicBoolean();
+    private volatile Disposable listener;
+
+    public TaskChangeBroadcaster(ConnectionFactory connectionFactory,
+            DatabaseClient databaseClient,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${task.events.channel:task_changes}") String channel,
+            @Value("${task.events.buffer-size:256}") int bufferSize,
+            @Value("${task.events.heartbeat:PT15S}") Duration heartbeat) {
+        if (!CHANNEL_NAME.matcher(channel).matches()) {
+            throw new IllegalArgumentException("task.events.channel must be a lowercase identifier: " + channel);
+        }
+        this.connectionFactory = connectionFactory;
+        this.databaseClient = databaseClient;
+        this.objectMapper = objectMapper;
+        this.postgres = "PostgreSQL".equalsIgnoreCase(connectionFactory.getMetadata().getName());
+        this.channel = channel;
+        this.bufferSize = bufferSize;
+        this.heartbeat = heartbeat;
+        this.dropped = Counter.builder("task.events.dropped").register(meterRegistry);
+        Gauge.builder("task.events.subscribers", this, TaskChangeBroadcaster::subscriberCount).register(meterRegistry);
+    }
+
+    /**
+     * The user's task changes as server-sent events. The subscriber is registered before the first comment
+     * is written, so a change made once the response has started is never missed.
+     */
+    public Flux<ServerSentEvent<TaskChangeEvent>> stream(String userId) {
+        Flux<ServerSentEvent<TaskChangeEvent>> changes = Flux.<ServerSentEvent<TaskChangeEvent>>create(sink -> {
+                    subscribers.compute(userId, (key, sinks) -> {
+                        Set<FluxSink<ServerSentEvent<TaskChangeEvent>>> registered = sinks != null ? sinks : ConcurrentHashMap.newKeySet();
+                        registered.add(sink);
+                        return registered;
+                    });
+                    sink.onDispose(() -> subscribers.computeIfPresent(userId, (key, sinks) -> {
+                        sinks.remove(sink);
+                        return sinks.isEmpty() ? null : sinks;
+                    }));
+                    sink.next(ServerSentEvent.<TaskChangeEvent>builder().comment("connected").retry(RECONNECT_DELAY).build());
+                })
+                .onBackpressureBuffer(bufferSize, event -> dropped.increment(), BufferOverflowStrategy.DROP_OLDEST);
+        Flux<ServerSentEvent<TaskChangeEvent>> heartbeats = Flux.interval(heartbeat)
+                .onBackpressureDrop()
+                .map(tick -> ServerSentEvent.<TaskChangeEvent>builder().comment("heartbeat").build());
+        // A prefetch of one keeps the merge from holding events beyond the bounded buffer above.
+        return Flux.merge(1, changes, heartbeats);
+    }
+
+    /**
+     * Publishes {@code events} once the current transaction commits, or right away outside one.
+     */
+    public Mono<Void> publish(List<TaskChangeEvent> events) {
+        if (events.isEmpty()) {
+            return Mono.empty();
+        }
+        if (postgres) {
+            // NOTIFY is transactional: Postgres delivers it to every listener on commit and drops it on rollback.
+            return databaseClient.sql("SELECT pg_notify(:channel, payload) FROM UNNEST(CAST(:payloads AS TEXT[])) AS t(payload)")
+                    .bind("channel", channel)
+                    .bind("payloads", events.stream().map(this::toJson).toArray(String[]::new))
+                    .then();
+        }
+        return TransactionSynchronizationManager.forCurrentTransaction()
+                .filter(TransactionSynchronizationManager::isSynchronizationActive)
+                .doOnNext(synchronization -> synchronization.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public Mono<Void> afterCommit() {
+                        return Mono.fromRunnable(() -> events.forEach(TaskChangeBroadcaster.this::dispatch));
+                    }
+                }))
+                .switchIfEmpty(Mono.fromRunnable(() -> events.forEach(this::dispatch)))
+                .onErrorResume(NoTransactionException.class, e -> Mono.fromRunnable(() -> events.forEach(this::dispatch)))
+                .then();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startListening() {
+        if (!postgres) {
+            return;
+        }
+        // LISTEN holds its connection for good, so it gets its own rather than one from the pool.
+        ConnectionFactory direct = connectionFactory instanceof Wrapped<?> wrapped
+                && wrapped.unwrap() instanceof ConnectionFactory target ? target : connectionFactory;
+        listener = Flux.usingWhen(direct.create(), this::listen, Connection::close)
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                        .maxBackoff(Duration.ofSeconds(30))
+                        .doBeforeRetry(signal -> log.warn("Task event listener lost its connection, reconnecting: {}",
+                                signal.failure().getMessage())))
+                .subscribe(this::dispatch);
+    }
+
+    @PreDestroy
+    public void stopListening() {
+        Disposable current = listener;
+        if (current != null) {
+            current.dispose();
+        }
+    }
+
+    private Flux<TaskChangeEvent> listen(Connection connection) {
+        PostgresqlConnection postgresConnection = (PostgresqlConnection) connection;
+        return postgresConnection.createStatement("LISTEN " + channel)
+                .execute()
+                .flatMap(PostgresqlResult::getRowsUpdated)
+                .then(Mono.fromRunnable(this::resyncAfterReconnect))
+                .thenMany(postgresConnection.getNotifications())
+                .mapNotNull(this::fromNotification)
+                .concatWith(Mono.error(() -> new IllegalStateException("LISTEN connection closed")));
+    }
+
+    // Changes made while the listener was down never reached this replica, so its subscribers start over.
+    private void resyncAfterReconnect() {
+        if (listenedBefore.getAndSet(true)) {
+            subscribers.keySet().forEach(userId -> dispatch(new TaskChangeEvent(userId, null, TaskChangeEvent.Type.RESYNC, null)));
+        }
+    }
+
+    void dispatch(TaskChangeEvent event) {
+        Set<FluxSink<ServerSentEvent<TaskChangeEvent>>> sinks = subscribers.get(event.userId());
+        if (sinks == null) {
+            return;
+        }
+        ServerSentEvent<TaskChangeEvent> sse = ServerSentEvent.builder(event).event(event.type().name()).build();
+        sinks.forEach(sink -> sink.next(sse));
+    }
+
+    int subscriberCount() {
+        return subscribers.values().stream().mapToInt(Set::size).sum();
+    }
+
+    private String toJson(TaskChangeEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize task event " + event, e);
+        }
+    }
+
+    private TaskChangeEvent fromNotification(Notification notification) {
+        try {
+            return objectMapper.readValue(notification.getParameter(), TaskChangeEvent.class);
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            log.warn("Ignoring malformed task event {}: {}", notification.getParameter(), e.getMessage());
+            return null;
+        }
+    }
+}
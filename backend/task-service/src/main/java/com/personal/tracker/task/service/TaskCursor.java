@@ -0,0 +1,67 @@
+package com.personal.tracker.task.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.UUID;
+
+import com.personal.tracker.task.domain.TaskComplexity;
+import com.personal.tracker.task.domain.TaskEntity;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Opaque keyset position for task list paging: the sort property and direction the page was
+ * produced with, plus the sort value and id of the last row returned.
+ */
+record TaskCursor(String property, Sort.Direction direction, Object value, UUID id) {
+
+    private static final String SEPARATOR = "|";
+
+    static TaskCursor after(TaskEntity entity, String property, Sort.Direction direction) {
+        Object value = switch (property) {
+            case "deadlineDate" -> entity.getDeadlineDate();
+            case "complexity" -> entity.getComplexity();
+            case "createdAt" -> entity.getCreatedAt();
+            default -> throw new IllegalArgumentException("Unsupported cursor property " + property);
+        };
+        return new TaskCursor(property, direction, value, entity.getId());
+    }
+
+    String encode() {
+        String raw = String.join(SEPARATOR, property, direction.name(), value == null ? "" : value.toString(), id.toString());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static TaskCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, -1);
+            if (parts.length != 4) {
+                throw invalid();
+            }
+            String property = parts[0];
+            Sort.Direction direction = Sort.Direction.valueOf(parts[1]);
+            Object value = parts[2].isEmpty() ? null : parseValue(property, parts[2]);
+            return new TaskCursor(property, direction, value, UUID.fromString(parts[3]));
+        } catch (IllegalArgumentException | DateTimeException ex) {
+            throw invalid();
+        }
+    }
+
+    private static Object parseValue(String property, String value) {
+        return switch (property) {
+            case "deadlineDate" -> LocalDate.parse(value);
+            case "complexity" -> TaskComplexity.valueOf(value);
+            case "createdAt" -> Instant.parse(value);
+            default -> throw invalid();
+        };
+    }
+
+    private static ResponseStatusException invalid() {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+    }
+}
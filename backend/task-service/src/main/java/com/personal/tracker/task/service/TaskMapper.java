@@ -25,7 +25,8 @@ public class TaskMapper {
                 entity.getStartedAt(),
                 entity.getClosedAt(),
                 entity.getArchivedAt(),
-                notes
+                notes,
+                entity.getVersion()
         );
     }
 
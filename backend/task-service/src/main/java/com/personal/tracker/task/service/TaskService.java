@@ -3,28 +3,51 @@ package com.personal.tracker.task.service;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import com.personal.tracker.task.domain.TaskEntity;
+import com.personal.tracker.task.domain.TaskEventType;
+import com.personal.tracker.task.domain.TaskListVersion;
 import com.personal.tracker.task.domain.TaskNoteEntity;
+import com.personal.tracker.task.domain.TaskOutboxEntity;
 import com.personal.tracker.task.domain.TaskStatus;
+import com.personal.tracker.task.dto.TaskBulkOperation;
+import com.personal.tracker.task.dto.TaskBulkResponse;
+import com.personal.tracker.task.dto.TaskBulkResult;
+import com.personal.tracker.task.dto.TaskChangeEvent;
 import com.personal.tracker.task.dto.TaskCreateRequest;
 import com.personal.tracker.task.dto.TaskNoteRequest;
+import com.personal.tracker.task.dto.TaskNoteResponse;
 import com.personal.tracker.task.dto.TaskPageResponse;
 import com.personal.tracker.task.dto.TaskResponse;
 import com.personal.tracker.task.dto.TaskStatusUpdateRequest;
 import com.personal.tracker.task.dto.TaskUpdateRequest;
+import com.personal.tracker.task.repository.TaskBatchRepository;
 import com.personal.tracker.task.repository.TaskNoteRepository;
+import com.personal.tracker.task.repository.TaskOutboxRepository;
 import com.personal.tracker.task.repository.TaskRepository;
+import com.personal.tracker.task.repository.TaskUpdateRepository;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
 import org.springframework.data.relational.core.query.Criteria;
 import org.springframework.data.relational.core.query.Query;
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @Service
@@ -32,8 +55,13 @@ public class TaskService {
 
     private final TaskRepository taskRepository;
     private final TaskNoteRepository taskNoteRepository;
+    private final TaskOutboxRepository taskOutboxRepository;
+    private final TaskBatchRepository taskBatchRepository;
+    private final TaskUpdateRepository taskUpdateRepository;
     private final TaskMapper taskMapper;
     private final R2dbcEntityTemplate template;
+    private final TransactionalOperator transactionalOperator;
+    private final TaskChangeBroadcaster taskChangeBroadcaster;
 
         private static final Map<String, String> ALLOWED_SORT_FIELDS = Map.of(
             "due", "deadlineDate",
@@ -41,16 +69,30 @@ public class TaskService {
             "created", "createdAt"
         );
 
-    public TaskService(TaskRepository taskRepository, TaskNoteRepository taskNoteRepository, TaskMapper taskMapper,
-            R2dbcEntityTemplate template) {
+    public TaskService(TaskRepository taskRepository, TaskNoteRepository taskNoteRepository,
+            TaskOutboxRepository taskOutboxRepository, TaskBatchRepository taskBatchRepository,
+            TaskUpdateRepository taskUpdateRepository, TaskMapper taskMapper, R2dbcEntityTemplate template,
+            TransactionalOperator transactionalOperator, TaskChangeBroadcaster taskChangeBroadcaster) {
         this.taskRepository = taskRepository;
         this.taskNoteRepository = taskNoteRepository;
+        this.taskOutboxRepository = taskOutboxRepository;
+        this.taskBatchRepository = taskBatchRepository;
+        this.taskUpdateRepository = taskUpdateRepository;
         this.taskMapper = taskMapper;
         this.template = template;
+        this.transactionalOperator = transactionalOperator;
+        this.taskChangeBroadcaster = taskChangeBroadcaster;
     }
 
+    @Transactional
     public Mono<TaskResponse> createTask(String userId, TaskCreateRequest request) {
-        Instant now = Instant.now();
+        TaskEntity entity = newTask(userId, request, Instant.now());
+        return saveAndRecord(entity, TaskEventType.CREATED, null)
+                .flatMap(task -> announce(task, TaskChangeEvent.Type.CREATED))
+                .flatMap(this::buildResponse);
+    }
+
+    private static TaskEntity newTask(String userId, TaskCreateRequest request, Instant now) {
         TaskEntity entity = new TaskEntity();
         entity.setId(UUID.randomUUID());
         entity.setNewEntity(true);
@@ -64,6 +106,7 @@ public class TaskService {
         entity.setStatus(status);
         entity.setCreatedAt(now);
         entity.setUpdatedAt(now);
+        entity.setVersion(0L);
         if (status == TaskStatus.IN_PROGRESS) {
             entity.setStartedAt(now);
         }
@@ -72,146 +115,364 @@ public class TaskService {
             entity.setClosedAt(now);
             entity.setArchivedAt(now);
         }
-        return taskRepository.save(entity).flatMap(this::buildResponse);
+        return entity;
     }
 
-    public Mono<TaskResponse> updateTask(String userId, UUID taskId, TaskUpdateRequest request) {
-        return requireOwnedTask(userId, taskId)
-                .flatMap(this::ensureNotArchived)
-                .flatMap(task -> {
-                    task.setTitle(request.title());
-                    task.setDescription(request.description());
-                    task.setApplication(request.application());
-                    task.setComplexity(request.complexity());
-                    task.setDeadlineDate(request.deadlineDate());
-                    task.setUpdatedAt(Instant.now());
-                    return taskRepository.save(task);
-                })
+    /**
+     * Updates the task's fields. With an {@code expectedVersion} the update only applies while the task is
+     * still at that version and answers 409 otherwise.
+     */
+    @Transactional
+    public Mono<TaskResponse> updateTask(String userId, UUID taskId, TaskUpdateRequest request, Long expectedVersion) {
+        return taskUpdateRepository.updateFields(taskId, userId, expectedVersion, request.title(), request.description(),
+                        request.application(), request.complexity(), request.deadlineDate(), Instant.now())
+                .flatMap(task -> record(task, TaskEventType.UPDATED, effectiveAt(task)))
+                .flatMap(task -> announce(task, TaskChangeEvent.Type.UPDATED))
+                .switchIfEmpty(Mono.defer(() -> explainMissedUpdate(userId, taskId, expectedVersion)))
+                .flatMap(this::buildResponse);
+    }
+
+    private static void applyUpdate(TaskEntity task, TaskUpdateRequest request, Instant now) {
+        task.setTitle(request.title());
+        task.setDescription(request.description());
+        task.setApplication(request.application());
+        task.setComplexity(request.complexity());
+        task.setDeadlineDate(request.deadlineDate());
+        task.setUpdatedAt(now);
+    }
+
+    /**
+     * Appends a note and bumps the task's version, since its notes are part of what the version stands for.
+     */
+    @Transactional
+    public Mono<TaskResponse> appendNote(String userId, UUID taskId, TaskNoteRequest request, Long expectedVersion) {
+        return taskUpdateRepository.touch(taskId, userId, expectedVersion)
+                .switchIfEmpty(Mono.defer(() -> explainMissedUpdate(userId, taskId, expectedVersion)))
+                .flatMap(task -> taskNoteRepository.save(newNote(userId, task, request, Instant.now())).thenReturn(task))
+                .flatMap(task -> announce(task, TaskChangeEvent.Type.NOTE_APPENDED))
                 .flatMap(this::buildResponse);
     }
 
-    public Mono<TaskResponse> appendNote(String userId, UUID taskId, TaskNoteRequest request) {
+    // Called when a conditional update matched no row; fails with the reason.
+    private Mono<TaskEntity> explainMissedUpdate(String userId, UUID taskId, Long expectedVersion) {
         return requireOwnedTask(userId, taskId)
-                .flatMap(this::ensureNotArchived)
-                .flatMap(task -> {
-                    TaskNoteEntity note = new TaskNoteEntity();
-                    note.setId(UUID.randomUUID());
-                    note.setNewEntity(true);
-                    note.setTaskId(task.getId());
-                    note.setUserId(userId);
-                    note.setContent(request.content());
-                    note.setCreatedAt(Instant.now());
-                    return taskNoteRepository.save(note).thenReturn(task);
-                })
+                .doOnNext(TaskService::requireNotArchived)
+                .flatMap(task -> Mono.error(conflict(task, expectedVersion)));
+    }
+
+    private static TaskNoteEntity newNote(String userId, TaskEntity task, TaskNoteRequest request, Instant now) {
+        TaskNoteEntity note = new TaskNoteEntity();
+        note.setId(UUID.randomUUID());
+        note.setNewEntity(true);
+        note.setTaskId(task.getId());
+        note.setUserId(userId);
+        note.setContent(request.content());
+        note.setCreatedAt(now);
+        return note;
+    }
+
+    /**
+     * Moves the task to the requested status. With an {@code expectedVersion} a task that has since changed
+     * answers 409; without one a transition that lost a race is retried against the task's new state.
+     */
+    @Transactional
+    public Mono<TaskResponse> updateStatus(String userId, UUID taskId, TaskStatusUpdateRequest request, Long expectedVersion) {
+        Mono<TaskEntity> transition = Mono.defer(() -> transitionOnce(userId, taskId, request, expectedVersion));
+        return (expectedVersion == null ? transition.retryWhen(ConflictRetry.onConflict()) : transition)
                 .flatMap(this::buildResponse);
     }
 
-    public Mono<TaskResponse> updateStatus(String userId, UUID taskId, TaskStatusUpdateRequest request) {
+    private Mono<TaskEntity> transitionOnce(String userId, UUID taskId, TaskStatusUpdateRequest request, Long expectedVersion) {
+        Instant now = Instant.now();
+        Transition transition = resolveTransition(request, now);
+        Mono<TaskEntity> updated = switch (transition.status()) {
+            case IN_PROGRESS -> taskUpdateRepository.start(taskId, userId, expectedVersion, transition.startedAt(), now);
+            case CLOSED -> taskUpdateRepository.close(taskId, userId, expectedVersion, transition.startedAt(),
+                    transition.closedAt(), now);
+            default -> taskUpdateRepository.changeStatus(taskId, userId, expectedVersion, transition.status(), now);
+        };
+        // Only tasks that were not CLOSED match, and those have no close or archive timestamp, so their
+        // effective timestamp before the change was their creation time.
+        return updated
+                .flatMap(task -> record(task, TaskEventType.STATUS_CHANGED, task.getCreatedAt()))
+                .flatMap(task -> announce(task, TaskChangeEvent.Type.STATUS_CHANGED))
+                .switchIfEmpty(Mono.defer(() -> requireOwnedTask(userId, taskId)
+                        .flatMap(task -> applyStatus(task, transition, now) || !atVersion(task, expectedVersion)
+                                ? Mono.error(conflict(task, expectedVersion))
+                                : Mono.just(task))));
+    }
+
+    /**
+     * A status change with its timestamps resolved from the request alone. {@code startedAt} is null when closing
+     * should keep the task's own start.
+     */
+    private record Transition(TaskStatus status, Instant startedAt, Instant closedAt) {
+    }
+
+    private static Transition resolveTransition(TaskStatusUpdateRequest request, Instant now) {
         TaskStatus desiredStatus = request.status();
         LocalDate startDate = request.startDate();
         LocalDate closeDate = request.closeDate();
         LocalDate today = LocalDate.now(ZoneOffset.UTC);
-        return requireOwnedTask(userId, taskId)
-                .flatMap(task -> {
-                    if (task.getStatus() == TaskStatus.CLOSED) {
-                        if (desiredStatus == TaskStatus.CLOSED) {
-                            return Mono.just(task);
-                        }
-                        return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Task is archived and cannot be reopened"));
-                    }
-                    Instant now = Instant.now();
+        if (desiredStatus != TaskStatus.IN_PROGRESS && desiredStatus != TaskStatus.CLOSED) {
+            return new Transition(desiredStatus, null, null);
+        }
+        if (startDate != null && startDate.isAfter(today)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Start date cannot be in the future");
+        }
+        if (desiredStatus == TaskStatus.IN_PROGRESS) {
+            return new Transition(desiredStatus, startDate != null ? startDate.atStartOfDay(ZoneOffset.UTC).toInstant() : now, null);
+        }
+        if (closeDate != null && closeDate.isAfter(today)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Close date cannot be in the future");
+        }
+        LocalDate effectiveCloseDate = closeDate != null ? closeDate : today;
+        if (startDate != null && effectiveCloseDate.isBefore(startDate)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Close date must be on or after the start date");
+        }
+        return new Transition(desiredStatus,
+                startDate != null ? startDate.atStartOfDay(ZoneOffset.UTC).toInstant() : null,
+                effectiveCloseDate.atStartOfDay(ZoneOffset.UTC).toInstant());
+    }
 
-                    if (desiredStatus == TaskStatus.IN_PROGRESS) {
-                        if (startDate != null && startDate.isAfter(today)) {
-                            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Start date cannot be in the future"));
-                        }
-                        Instant startInstant = startDate != null
-                                ? startDate.atStartOfDay(ZoneOffset.UTC).toInstant()
-                                : now;
-                        task.setStatus(TaskStatus.IN_PROGRESS);
-                        task.setStartedAt(startInstant);
-                        task.setUpdatedAt(now);
-                        return taskRepository.save(task);
-                    }
+    /**
+     * Applies the transition to {@code task} in memory. Returns false when there is nothing to write (closing
+     * an already closed task) and throws {@link ResponseStatusException} for a transition the task's current
+     * state does not allow, before touching the task.
+     */
+    private static boolean applyStatus(TaskEntity task, Transition transition, Instant now) {
+        if (task.getStatus() == TaskStatus.CLOSED) {
+            if (transition.status() == TaskStatus.CLOSED) {
+                return false;
+            }
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Task is archived and cannot be reopened");
+        }
 
-                    if (desiredStatus == TaskStatus.CLOSED) {
-                        if (startDate != null && startDate.isAfter(today)) {
-                            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Start date cannot be in the future"));
-                        }
-                        if (closeDate != null && closeDate.isAfter(today)) {
-                            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Close date cannot be in the future"));
-                        }
-                        LocalDate existingStartDate = task.getStartedAt() != null
-                                ? task.getStartedAt().atZone(ZoneOffset.UTC).toLocalDate()
-                                : null;
-                        LocalDate effectiveStartDate = startDate != null ? startDate : existingStartDate;
-                        if (effectiveStartDate == null) {
-                            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Start date is required before closing a task"));
-                        }
+        if (transition.status() == TaskStatus.CLOSED) {
+            Instant startedAt = transition.startedAt() != null ? transition.startedAt() : task.getStartedAt();
+            if (startedAt == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Start date is required before closing a task");
+            }
+            if (transition.closedAt().isBefore(startedAt.truncatedTo(ChronoUnit.DAYS))) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Close date must be on or after the start date");
+            }
+            if (task.getStartedAt() == null) {
+                task.setStartedAt(startedAt);
+            }
+            task.setClosedAt(transition.closedAt());
+            task.setArchivedAt(transition.closedAt());
+        } else if (transition.status() == TaskStatus.IN_PROGRESS) {
+            task.setStartedAt(transition.startedAt());
+        }
+        task.setStatus(transition.status());
+        task.setUpdatedAt(now);
+        return true;
+    }
 
-                        LocalDate effectiveCloseDate = closeDate != null ? closeDate : LocalDate.now(ZoneOffset.UTC);
-                        if (effectiveCloseDate.isAfter(today)) {
-                            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Close date cannot be in the future"));
-                        }
-                        if (effectiveCloseDate.isBefore(effectiveStartDate)) {
-                            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Close date must be on or after the start date"));
-                        }
+    private static ResponseStatusException concurrentChange() {
+        return new ResponseStatusException(HttpStatus.CONFLICT, "Task was changed concurrently, please retry");
+    }
 
-                        if (task.getStartedAt() == null) {
-                            task.setStartedAt(effectiveStartDate.atStartOfDay(ZoneOffset.UTC).toInstant());
-                        }
-                        Instant closeInstant = effectiveCloseDate.atStartOfDay(ZoneOffset.UTC).toInstant();
-                        task.setStatus(TaskStatus.CLOSED);
-                        task.setClosedAt(closeInstant);
-                        task.setArchivedAt(closeInstant);
-                        task.setUpdatedAt(now);
-                        return taskRepository.save(task);
-                    }
+    private static boolean atVersion(TaskEntity task, Long expectedVersion) {
+        return expectedVersion == null || expectedVersion.equals(task.getVersion());
+    }
 
-                    task.setStatus(desiredStatus);
-                    task.setUpdatedAt(now);
-                    return taskRepository.save(task);
-                })
-                .flatMap(this::buildResponse);
+    private static ResponseStatusException conflict(TaskEntity current, Long expectedVersion) {
+        if (!atVersion(current, expectedVersion)) {
+            return new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Task is at version " + current.getVersion() + ", not " + expectedVersion);
+        }
+        return concurrentChange();
+    }
+
+    /**
+     * Applies {@code operations} in order against one ownership lookup. An operation that is invalid for the
+     * task as the earlier operations left it is skipped and reported in its result; everything else is
+     * written with one batched statement per table, in one transaction. If another request changed one of
+     * the tasks after the lookup, the transaction rolls back and the whole batch is planned again.
+     */
+    public Mono<TaskBulkResponse> applyBulk(String userId, List<TaskBulkOperation> operations) {
+        return transactionalOperator.transactional(Mono.defer(() -> applyBulkOnce(userId, operations)))
+                .retryWhen(ConflictRetry.onConflict());
+    }
+
+    private Mono<TaskBulkResponse> applyBulkOnce(String userId, List<TaskBulkOperation> operations) {
+        Set<UUID> taskIds = operations.stream()
+                .map(TaskBulkOperation::taskId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Mono<Map<UUID, TaskEntity>> existing = taskIds.isEmpty()
+                ? Mono.just(Map.of())
+                : taskBatchRepository.findAllById(taskIds).collectMap(TaskEntity::getId);
+        return existing.flatMap(tasks -> {
+            BulkPlan plan = new BulkPlan(userId, tasks);
+            Instant now = Instant.now();
+            for (int index = 0; index < operations.size(); index++) {
+                try {
+                    plan.apply(index, operations.get(index), now);
+                } catch (ResponseStatusException e) {
+                    plan.fail(index, operations.get(index).taskId(), e);
+                }
+            }
+            List<TaskEntity> updated = plan.updated();
+            return taskBatchRepository.insertTasks(plan.created())
+                    .then(taskBatchRepository.updateTasks(updated))
+                    .flatMap(matched -> {
+                        if (matched != updated.size()) {
+                            return Mono.error(concurrentChange());
+                        }
+                        updated.forEach(task -> task.setVersion(task.getVersion() + 1));
+                        return taskBatchRepository.insertNotes(plan.notes);
+                    })
+                    .then(taskBatchRepository.insertOutbox(plan.events))
+                    .then(Mono.defer(() -> taskChangeBroadcaster.publish(plan.changeEvents())))
+                    .then(buildResponses(plan.touched()))
+                    .map(plan::results);
+        });
     }
 
     public Mono<TaskResponse> getTask(String userId, UUID taskId) {
         return requireOwnedTask(userId, taskId).flatMap(this::buildResponse);
     }
 
-    public Mono<TaskPageResponse> listTasks(String userId, boolean includeArchived, int page, int size, String sortField, String sortDirection) {
+    /**
+     * The version of the user's task, or empty when there is no such task of theirs; lets a conditional GET
+     * answer 304 before the task and its notes are loaded.
+     */
+    public Mono<Long> taskVersion(String userId, UUID taskId) {
+        return taskRepository.findVersion(taskId, userId);
+    }
+
+    public Mono<TaskListVersion> listVersion(String userId, boolean includeArchived) {
+        return includeArchived ? taskRepository.archivedListVersion(userId) : taskRepository.activeListVersion(userId);
+    }
+
+    public Mono<TaskPageResponse> listTasks(String userId, boolean includeArchived, int page, int size, String sortField,
+            String sortDirection, boolean includeTotal) {
         int safePage = Math.max(1, page);
-        int safeSize = Math.max(1, Math.min(size, 100));
+        int safeSize = safeSize(size);
         int offset = (safePage - 1) * safeSize;
 
-        String normalizedSortField = sortField == null ? "due" : sortField.toLowerCase();
-        String property = ALLOWED_SORT_FIELDS.getOrDefault(normalizedSortField, "deadlineDate");
-        Sort.Direction direction = "desc".equalsIgnoreCase(sortDirection) ? Sort.Direction.DESC : Sort.Direction.ASC;
-        Sort sort = Sort.by(direction, property);
+        Criteria criteria = listCriteria(userId, includeArchived);
+        Query pageQuery = listQuery(userId, includeArchived, sortField, sortDirection).limit(safeSize).offset(offset);
 
-        Criteria criteria = Criteria.where("userId").is(userId);
-        if (includeArchived) {
-            criteria = criteria.and("status").is(TaskStatus.CLOSED);
-        } else {
-            criteria = criteria.and("status").not(TaskStatus.CLOSED);
+        Mono<List<TaskResponse>> items = template.select(TaskEntity.class)
+                .matching(pageQuery)
+                .all()
+                .collectList()
+                .flatMap(this::buildResponses);
+
+        if (!includeTotal) {
+            return items.map(content -> new TaskPageResponse(content, safePage, safeSize, null, null, includeArchived, null));
         }
+        Mono<Long> totalMono = template.count(Query.query(criteria), TaskEntity.class);
+        return Mono.zip(totalMono, items)
+                .map(tuple -> {
+                    long totalElements = tuple.getT1();
+                    int totalPages = (int) Math.max(1, Math.ceil(totalElements / (double) safeSize));
+                    return new TaskPageResponse(tuple.getT2(), safePage, safeSize, totalElements, totalPages, includeArchived, null);
+                });
+    }
 
-        Query pageQuery = Query.query(criteria).sort(sort).limit(safeSize).offset(offset);
+    public Mono<TaskPageResponse> listTasksAfter(String userId, boolean includeArchived, String cursor, int size, String sortField,
+            String sortDirection, boolean includeTotal) {
+        int safeSize = safeSize(size);
+        String property = sortProperty(sortField);
+        Sort.Direction direction = sortDirection(sortDirection);
+        Criteria filter = listCriteria(userId, includeArchived);
 
-        Mono<Long> totalMono = template.count(Query.query(criteria), TaskEntity.class);
-        Flux<TaskResponse> items = template.select(TaskEntity.class)
+        Criteria criteria = filter;
+        if (cursor != null && !cursor.isBlank()) {
+            TaskCursor position = TaskCursor.decode(cursor);
+            if (!position.property().equals(property) || position.direction() != direction) {
+                return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor does not match the requested sort"));
+            }
+            criteria = filter.and(keysetCriteria(position));
+        }
+
+        Query pageQuery = Query.query(criteria)
+                .sort(Sort.by(direction, property).and(Sort.by(direction, "id")))
+                .limit(safeSize + 1);
+
+        Mono<TaskPageResponse> pageMono = template.select(TaskEntity.class)
                 .matching(pageQuery)
                 .all()
-                .flatMap(this::buildResponse);
+                .collectList()
+                .flatMap(rows -> {
+                    boolean hasMore = rows.size() > safeSize;
+                    List<TaskEntity> pageRows = hasMore ? rows.subList(0, safeSize) : rows;
+                    String nextCursor = hasMore
+                            ? TaskCursor.after(pageRows.get(pageRows.size() - 1), property, direction).encode()
+                            : null;
+                    return buildResponses(pageRows)
+                            .map(content -> new TaskPageResponse(content, null, safeSize, null, null, includeArchived, nextCursor));
+                });
 
-        return Mono.zip(totalMono, items.collectList())
+        if (!includeTotal) {
+            return pageMono;
+        }
+        return Mono.zip(template.count(Query.query(filter), TaskEntity.class), pageMono)
                 .map(tuple -> {
                     long totalElements = tuple.getT1();
                     int totalPages = (int) Math.max(1, Math.ceil(totalElements / (double) safeSize));
-                    return new TaskPageResponse(tuple.getT2(), safePage, safeSize, totalElements, totalPages, includeArchived);
+                    TaskPageResponse pageResponse = tuple.getT2();
+                    return new TaskPageResponse(pageResponse.content(), null, safeSize, totalElements, totalPages,
+                            includeArchived, pageResponse.nextCursor());
                 });
     }
 
+    Query listQuery(String userId, boolean includeArchived, String sortField, String sortDirection) {
+        return Query.query(listCriteria(userId, includeArchived))
+                .sort(Sort.by(sortDirection(sortDirection), sortProperty(sortField)));
+    }
+
+    private int safeSize(int size) {
+        return Math.max(1, Math.min(size, 100));
+    }
+
+    private String sortProperty(String sortField) {
+        String normalizedSortField = sortField == null ? "due" : sortField.toLowerCase();
+        return ALLOWED_SORT_FIELDS.getOrDefault(normalizedSortField, "deadlineDate");
+    }
+
+    private Sort.Direction sortDirection(String sortDirection) {
+        return "desc".equalsIgnoreCase(sortDirection) ? Sort.Direction.DESC : Sort.Direction.ASC;
+    }
+
+    private Criteria listCriteria(String userId, boolean includeArchived) {
+        Criteria criteria = Criteria.where("userId").is(userId);
+        if (includeArchived) {
+            return criteria.and("status").is(TaskStatus.CLOSED);
+        }
+        return criteria.and("status").not(TaskStatus.CLOSED);
+    }
+
+    // Rows strictly after the cursor in (property, id) order. NULL sort values follow the
+    // Postgres default of sorting above every non-null value.
+    private Criteria keysetCriteria(TaskCursor cursor) {
+        String property = cursor.property();
+        Object value = cursor.value();
+        boolean ascending = cursor.direction() == Sort.Direction.ASC;
+        Criteria sameValueLaterId = value == null
+                ? Criteria.where(property).isNull()
+                : Criteria.where(property).is(value);
+        sameValueLaterId = ascending
+                ? sameValueLaterId.and("id").greaterThan(cursor.id())
+                : sameValueLaterId.and("id").lessThan(cursor.id());
+
+        if (value == null) {
+            return ascending
+                    ? sameValueLaterId
+                    : sameValueLaterId.or(Criteria.where(property).isNotNull());
+        }
+        if (ascending) {
+            return Criteria.where(property).greaterThan(value)
+                    .or(sameValueLaterId)
+                    .or(Criteria.where(property).isNull());
+        }
+        return Criteria.where(property).lessThan(value).or(sameValueLaterId);
+    }
+
     private Mono<TaskEntity> requireOwnedTask(String userId, UUID taskId) {
         return taskRepository.findById(taskId)
                 .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found")))
@@ -223,11 +484,177 @@ public class TaskService {
                 });
     }
 
-    private Mono<TaskEntity> ensureNotArchived(TaskEntity task) {
+    /**
+     * Saves the task and appends its outbox row; callers are {@code @Transactional} so both commit together.
+     */
+    private Mono<TaskEntity> saveAndRecord(TaskEntity task, TaskEventType eventType, Instant previousEffectiveAt) {
+        return taskRepository.save(task).flatMap(saved -> record(saved, eventType, previousEffectiveAt));
+    }
+
+    private Mono<TaskEntity> record(TaskEntity task, TaskEventType eventType, Instant previousEffectiveAt) {
+        return taskOutboxRepository.save(outboxEvent(task, eventType, previousEffectiveAt)).thenReturn(task);
+    }
+
+    // Streams the change to the user's subscribers once the surrounding transaction commits.
+    private Mono<TaskEntity> announce(TaskEntity task, TaskChangeEvent.Type type) {
+        return taskChangeBroadcaster.publish(List.of(TaskChangeEvent.of(task, type))).thenReturn(task);
+    }
+
+    private static TaskOutboxEntity outboxEvent(TaskEntity task, TaskEventType eventType, Instant previousEffectiveAt) {
+        TaskOutboxEntity event = new TaskOutboxEntity();
+        event.setTaskId(task.getId());
+        event.setUserId(task.getUserId());
+        event.setEventType(eventType);
+        event.setPreviousEffectiveAt(previousEffectiveAt);
+        event.setEffectiveAt(effectiveAt(task));
+        event.setRecordedAt(task.getUpdatedAt());
+        return event;
+    }
+
+    private static Instant effectiveAt(TaskEntity task) {
+        if (task.getClosedAt() != null) {
+            return task.getClosedAt();
+        }
+        return task.getArchivedAt() != null ? task.getArchivedAt() : task.getCreatedAt();
+    }
+
+    /**
+     * In-memory state of a bulk request: the tasks it may touch, the rows to write and each operation's
+     * outcome so far.
+     */
+    private static final class BulkPlan {
+
+        private record Outcome(int index, UUID taskId, ResponseStatusException error) {
+        }
+
+        private record Change(UUID taskId, TaskChangeEvent.Type type) {
+        }
+
+        private final String userId;
+        private final Map<UUID, TaskEntity> tasks;
+        private final Set<UUID> createdIds = new HashSet<>();
+        private final Set<UUID> changedIds = new HashSet<>();
+        private final Set<UUID> touchedIds = new LinkedHashSet<>();
+        private final List<TaskNoteEntity> notes = new ArrayList<>();
+        private final List<TaskOutboxEntity> events = new ArrayList<>();
+        private final List<Outcome> outcomes = new ArrayList<>();
+        private final List<Change> changes = new ArrayList<>();
+
+        BulkPlan(String userId, Map<UUID, TaskEntity> existing) {
+            this.userId = userId;
+            this.tasks = new HashMap<>(existing);
+        }
+
+        void apply(int index, TaskBulkOperation operation, Instant now) {
+            TaskEntity task = switch (operation.type()) {
+                case CREATE -> {
+                    TaskEntity created = newTask(userId, required(operation.create(), operation.type()), now);
+                    tasks.put(created.getId(), created);
+                    createdIds.add(created.getId());
+                    events.add(outboxEvent(created, TaskEventType.CREATED, null));
+                    changes.add(new Change(created.getId(), TaskChangeEvent.Type.CREATED));
+                    yield created;
+                }
+                case UPDATE -> {
+                    TaskUpdateRequest request = required(operation.update(), operation.type());
+                    TaskEntity owned = owned(operation);
+                    requireNotArchived(owned);
+                    applyUpdate(owned, request, now);
+                    changedIds.add(owned.getId());
+                    events.add(outboxEvent(owned, TaskEventType.UPDATED, effectiveAt(owned)));
+                    changes.add(new Change(owned.getId(), TaskChangeEvent.Type.UPDATED));
+                    yield owned;
+                }
+                case STATUS -> {
+                    Transition transition = resolveTransition(required(operation.status(), operation.type()), now);
+                    TaskEntity owned = owned(operation);
+                    Instant previousEffectiveAt = effectiveAt(owned);
+                    if (applyStatus(owned, transition, now)) {
+                        changedIds.add(owned.getId());
+                        events.add(outboxEvent(owned, TaskEventType.STATUS_CHANGED, previousEffectiveAt));
+                        changes.add(new Change(owned.getId(), TaskChangeEvent.Type.STATUS_CHANGED));
+                    }
+                    yield owned;
+                }
+                case NOTE -> {
+                    TaskNoteRequest request = required(operation.note(), operation.type());
+                    TaskEntity owned = owned(operation);
+                    requireNotArchived(owned);
+                    notes.add(newNote(userId, owned, request, now));
+                    changedIds.add(owned.getId());
+                    changes.add(new Change(owned.getId(), TaskChangeEvent.Type.NOTE_APPENDED));
+                    yield owned;
+                }
+            };
+            touchedIds.add(task.getId());
+            outcomes.add(new Outcome(index, task.getId(), null));
+        }
+
+        void fail(int index, UUID taskId, ResponseStatusException error) {
+            outcomes.add(new Outcome(index, taskId, error));
+        }
+
+        List<TaskEntity> created() {
+            return createdIds.stream().map(tasks::get).toList();
+        }
+
+        List<TaskEntity> updated() {
+            return changedIds.stream().filter(id -> !createdIds.contains(id)).map(tasks::get).toList();
+        }
+
+        // Read after the batch is written, so each event carries the task's new version.
+        List<TaskChangeEvent> changeEvents() {
+            return changes.stream().map(change -> TaskChangeEvent.of(tasks.get(change.taskId()), change.type())).toList();
+        }
+
+        List<TaskEntity> touched() {
+            return touchedIds.stream().map(tasks::get).toList();
+        }
+
+        TaskBulkResponse results(List<TaskResponse> responses) {
+            Map<UUID, TaskResponse> byId = new HashMap<>();
+            responses.forEach(response -> byId.put(response.id(), response));
+            return new TaskBulkResponse(outcomes.stream()
+                    .map(outcome -> outcome.error() == null
+                            ? new TaskBulkResult(outcome.index(),
+                                    createdIds.contains(outcome.taskId()) ? HttpStatus.CREATED.value() : HttpStatus.OK.value(),
+                                    outcome.taskId(), null, byId.get(outcome.taskId()))
+                            : new TaskBulkResult(outcome.index(), outcome.error().getStatusCode().value(),
+                                    outcome.taskId(), outcome.error().getReason(), null))
+                    .toList());
+        }
+
+        private TaskEntity owned(TaskBulkOperation operation) {
+            UUID taskId = operation.taskId();
+            if (taskId == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "taskId is required");
+            }
+            TaskEntity task = tasks.get(taskId);
+            if (task == null) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found");
+            }
+            if (!task.getUserId().equals(userId)) {
+                throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Task does not belong to user");
+            }
+            // Versions only move when the batch is written, so this compares against the version as loaded.
+            if (!atVersion(task, operation.version())) {
+                throw conflict(task, operation.version());
+            }
+            return task;
+        }
+
+        private static <T> T required(T payload, TaskBulkOperation.Type type) {
+            if (payload == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, type.name().toLowerCase(Locale.ROOT) + " payload is required");
+            }
+            return payload;
+        }
+    }
+
+    private static void requireNotArchived(TaskEntity task) {
         if (task.getStatus() == TaskStatus.CLOSED) {
-            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Task is archived and cannot be modified"));
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Task is archived and cannot be modified");
         }
-        return Mono.just(task);
     }
 
     private Mono<TaskResponse> buildResponse(TaskEntity entity) {
@@ -237,4 +664,21 @@ public class TaskService {
                 .collectList()
                 .map(notes -> taskMapper.toResponse(entity, notes));
     }
+
+    private Mono<List<TaskResponse>> buildResponses(List<TaskEntity> entities) {
+        if (entities.isEmpty()) {
+            return Mono.just(List.of());
+        }
+        List<UUID> taskIds = entities.stream().map(TaskEntity::getId).toList();
+        return taskNoteRepository.findByTaskIdInOrderByCreatedAtAsc(taskIds)
+                .collectMultimap(TaskNoteEntity::getTaskId, taskMapper::toNoteResponse)
+                .map(notesByTask -> entities.stream()
+                        .map(entity -> taskMapper.toResponse(entity, notesFor(notesByTask, entity.getId())))
+                        .toList());
+    }
+
+    private List<TaskNoteResponse> notesFor(Map<UUID, Collection<TaskNoteResponse>> notesByTask, UUID taskId) {
+        Collection<TaskNoteResponse> notes = notesByTask.get(taskId);
+        return notes == null ? List.of() : List.copyOf(notes);
+    }
 }
@@ -0,0 +1,6 @@
+-- Report filters: user_id plus optional application and complexity.
+CREATE INDEX IF NOT EXISTS idx_tasks_user_application_complexity ON tasks(user_id, application, complexity);
+
+-- Batched note loading reads notes for a page of tasks ordered by creation time.
+CREATE INDEX IF NOT EXISTS idx_task_notes_task_created ON task_notes(task_id, created_at);
+DROP INDEX IF EXISTS idx_task_notes_task;
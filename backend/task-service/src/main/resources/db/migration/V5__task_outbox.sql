@@ -0,0 +1,11 @@
+-- Transactional outbox: TaskService writes one row per task mutation in the same transaction as the
+-- task itself. reporting-service tails it by seq to keep its daily rollups current.
+CREATE TABLE IF NOT EXISTS task_outbox (
+    seq BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    task_id UUID NOT NULL,
+    user_id VARCHAR(100) NOT NULL,
+    event_type VARCHAR(20) NOT NULL,
+    previous_effective_at TIMESTAMP WITH TIME ZONE,
+    effective_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    recorded_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
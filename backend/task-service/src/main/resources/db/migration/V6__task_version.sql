@@ -0,0 +1,3 @@
+-- Optimistic concurrency: every write bumps the version, and writes made against a version the client
+-- read (If-Match) only match while it is still current.
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,2 @@
+-- reporting-service keys its report cache on each user's latest outbox seq, read on every report request.
+CREATE INDEX IF NOT EXISTS idx_task_outbox_user_seq ON task_outbox(user_id, seq);
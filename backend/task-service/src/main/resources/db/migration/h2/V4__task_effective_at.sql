@@ -0,0 +1,5 @@
+-- H2 counterpart of postgresql/V4: generated columns are always stored and take no STORED keyword.
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS effective_at TIMESTAMP WITH TIME ZONE
+    GENERATED ALWAYS AS (COALESCE(closed_at, archived_at, created_at));
+
+CREATE INDEX IF NOT EXISTS idx_tasks_user_effective ON tasks(user_id, effective_at);
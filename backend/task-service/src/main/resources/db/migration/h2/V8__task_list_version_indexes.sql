@@ -0,0 +1,3 @@
+-- H2 counterpart of postgresql/V8: no partial or INCLUDE indexes, so one index carries the status split and
+-- the validator columns as key columns.
+CREATE INDEX IF NOT EXISTS idx_tasks_list_version ON tasks(user_id, status, version, updated_at);
@@ -0,0 +1,13 @@
+-- Task list access paths: user_id with the active/archived status split, ordered by each
+-- sortable column with id as the keyset tie-breaker. Active and CLOSED rows are indexed
+-- separately so paging the active list never walks a user's archive.
+CREATE INDEX IF NOT EXISTS idx_tasks_active_deadline ON tasks(user_id, deadline_date, id) WHERE status <> 'CLOSED';
+CREATE INDEX IF NOT EXISTS idx_tasks_active_complexity ON tasks(user_id, complexity, id) WHERE status <> 'CLOSED';
+CREATE INDEX IF NOT EXISTS idx_tasks_active_created ON tasks(user_id, created_at, id) WHERE status <> 'CLOSED';
+
+CREATE INDEX IF NOT EXISTS idx_tasks_closed_deadline ON tasks(user_id, deadline_date, id) WHERE status = 'CLOSED';
+CREATE INDEX IF NOT EXISTS idx_tasks_closed_complexity ON tasks(user_id, complexity, id) WHERE status = 'CLOSED';
+CREATE INDEX IF NOT EXISTS idx_tasks_closed_created ON tasks(user_id, created_at, id) WHERE status = 'CLOSED';
+
+-- Plain user_id lookups are served by the leading column of idx_tasks_user_application_complexity.
+DROP INDEX IF EXISTS idx_tasks_user;
@@ -0,0 +1,6 @@
+-- Reporting windows select tasks by their effective timestamp: closed, else archived, else created.
+-- Storing it lets the window bounds run as an index range instead of a per-row COALESCE.
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS effective_at TIMESTAMP WITH TIME ZONE
+    GENERATED ALWAYS AS (COALESCE(closed_at, archived_at, created_at)) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_tasks_user_effective ON tasks(user_id, effective_at);
@@ -0,0 +1,5 @@
+-- Conditional list GETs read COUNT, SUM(version) and MAX(updated_at) over the user's active or CLOSED
+-- tasks. Carrying version and updated_at in a partial index per status split answers that validator with
+-- an index-only scan, without visiting the table for every task in the list.
+CREATE INDEX IF NOT EXISTS idx_tasks_active_list_version ON tasks(user_id) INCLUDE (version, updated_at) WHERE status <> 'CLOSED';
+CREATE INDEX IF NOT EXISTS idx_tasks_closed_list_version ON tasks(user_id) INCLUDE (version, updated_at) WHERE status = 'CLOSED';
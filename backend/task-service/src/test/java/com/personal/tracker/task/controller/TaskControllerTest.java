@@ -1,22 +1,45 @@
 package com.personal.tracker.task.controller;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Collections;
 import java.util.List;
+import java.util.UUID;
 
 import com.personal.tracker.common.security.JwtService;
 import com.personal.tracker.task.domain.TaskComplexity;
+import com.personal.tracker.task.domain.TaskEventType;
+import com.personal.tracker.task.domain.TaskOutboxEntity;
 import com.personal.tracker.task.domain.TaskStatus;
+import com.personal.tracker.task.dto.TaskBulkOperation;
+import com.personal.tracker.task.dto.TaskBulkRequest;
+import com.personal.tracker.task.dto.TaskBulkResponse;
+import com.personal.tracker.task.dto.TaskBulkResult;
+import com.personal.tracker.task.dto.TaskChangeEvent;
 import com.personal.tracker.task.dto.TaskCreateRequest;
+import com.personal.tracker.task.dto.TaskNoteRequest;
 import com.personal.tracker.task.dto.TaskPageResponse;
 import com.personal.tracker.task.dto.TaskResponse;
 import com.personal.tracker.task.dto.TaskStatusUpdateRequest;
 import com.personal.tracker.task.dto.TaskUpdateRequest;
+import com.personal.tracker.task.repository.TaskOutboxRepository;
+import com.personal.tracker.task.service.TaskService;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @AutoConfigureWebTestClient
@@ -29,6 +52,15 @@ class TaskControllerTest {
     @Autowired
     private JwtService jwtService;
 
+    @Autowired
+    private TaskOutboxRepository taskOutboxRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TaskService taskService;
+
     @Test
     void createAndGetTask() {
         String token = bearer("alice");
@@ -101,6 +133,36 @@ class TaskControllerTest {
                 .expectStatus().isBadRequest();
     }
 
+    @Test
+    void mutationsAppendOutboxEvents() {
+        TaskResponse task = createTaskAs("outbox-user", "Outbox Task");
+        webTestClient.put()
+                .uri("/api/tasks/{id}", task.id())
+                .header("Authorization", bearer("outbox-user"))
+                .bodyValue(new TaskUpdateRequest("Renamed", "desc", "app", TaskComplexity.HIGH, LocalDate.now().plusDays(3)))
+                .exchange()
+                .expectStatus().isOk();
+        LocalDate closeDate = LocalDate.now(ZoneOffset.UTC).minusDays(1);
+        webTestClient.post()
+                .uri("/api/tasks/{id}/status", task.id())
+                .header("Authorization", bearer("outbox-user"))
+                .bodyValue(new TaskStatusUpdateRequest(TaskStatus.CLOSED, closeDate, closeDate))
+                .exchange()
+                .expectStatus().isOk();
+
+        List<TaskOutboxEntity> events = taskOutboxRepository.findByTaskIdOrderBySeqAsc(task.id()).collectList().block();
+        if (events == null || !events.stream().map(TaskOutboxEntity::getEventType).toList()
+                .equals(List.of(TaskEventType.CREATED, TaskEventType.UPDATED, TaskEventType.STATUS_CHANGED))) {
+            throw new AssertionError("Expected CREATED, UPDATED and STATUS_CHANGED events but got " + events);
+        }
+        Instant createdAt = events.get(0).getEffectiveAt();
+        TaskOutboxEntity closed = events.get(2);
+        if (events.get(0).getPreviousEffectiveAt() != null || !createdAt.equals(closed.getPreviousEffectiveAt())
+                || !closed.getEffectiveAt().equals(closeDate.atStartOfDay(ZoneOffset.UTC).toInstant())) {
+            throw new AssertionError("Closing should move the effective timestamp from creation to the close date");
+        }
+    }
+
         @Test
         void closeFailsForFutureDatesOrInvalidOrdering() {
         TaskResponse task = createTaskAs("date-guard", "Guarded Task");
@@ -224,6 +286,77 @@ class TaskControllerTest {
         }
     }
 
+    @Test
+    void cursorPagingWalksAllTasksInOrder() {
+        String userId = "cursor-user";
+        createTaskAs(userId, "Soon", LocalDate.now().plusDays(1), TaskStatus.OPEN);
+        createTaskAs(userId, "Later", LocalDate.now().plusDays(3), TaskStatus.OPEN);
+        createTaskAs(userId, "Middle", LocalDate.now().plusDays(2), TaskStatus.OPEN);
+        createTaskAs(userId, "Middle twin", LocalDate.now().plusDays(2), TaskStatus.OPEN);
+
+        TaskPageResponse first = listByCursor(userId, "", true);
+        if (first.content().size() != 2 || first.nextCursor() == null) {
+            throw new AssertionError("Expected a full first page with a next cursor");
+        }
+        if (!"Soon".equals(first.content().get(0).title()) || !first.content().get(1).title().startsWith("Middle")) {
+            throw new AssertionError("First cursor page not sorted by due date ascending");
+        }
+        if (first.totalElements() == null || first.totalElements() != 4 || first.page() != null) {
+            throw new AssertionError("Expected total count only when requested and no page number in cursor mode");
+        }
+
+        TaskPageResponse second = listByCursor(userId, first.nextCursor(), false);
+        if (second.content().size() != 2 || second.nextCursor() != null) {
+            throw new AssertionError("Expected the final two tasks without a next cursor");
+        }
+        if (!second.content().get(0).title().startsWith("Middle") || !"Later".equals(second.content().get(1).title())) {
+            throw new AssertionError("Second cursor page not sorted by due date ascending");
+        }
+        if (second.content().get(0).id().equals(first.content().get(1).id())) {
+            throw new AssertionError("Tied sort values must not repeat across cursor pages");
+        }
+        if (second.totalElements() != null) {
+            throw new AssertionError("Total count should be omitted by default in cursor mode");
+        }
+
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/api/tasks")
+                        .queryParam("cursor", "not-a-cursor")
+                        .build())
+                .header("Authorization", bearer(userId))
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void listAttachesNotesToTheirOwnTasks() {
+        String userId = "notes-lister";
+        TaskResponse first = createTaskAs(userId, "First", LocalDate.now().plusDays(1), TaskStatus.OPEN);
+        TaskResponse second = createTaskAs(userId, "Second", LocalDate.now().plusDays(2), TaskStatus.OPEN);
+        createTaskAs(userId, "Third", LocalDate.now().plusDays(3), TaskStatus.OPEN);
+
+        appendNote(userId, first.id(), "first-a");
+        appendNote(userId, first.id(), "first-b");
+        appendNote(userId, second.id(), "second-a");
+
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/api/tasks")
+                        .queryParam("sortField", "due")
+                        .queryParam("sortDirection", "asc")
+                        .build())
+                .header("Authorization", bearer(userId))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content.length()").isEqualTo(3)
+                .jsonPath("$.content[0].notes.length()").isEqualTo(2)
+                .jsonPath("$.content[0].notes[0].content").isEqualTo("first-a")
+                .jsonPath("$.content[0].notes[1].content").isEqualTo("first-b")
+                .jsonPath("$.content[1].notes.length()").isEqualTo(1)
+                .jsonPath("$.content[1].notes[0].content").isEqualTo("second-a")
+                .jsonPath("$.content[2].notes.length()").isEqualTo(0);
+    }
+
     @Test
     void archivedFilterReturnsOnlyClosedTasks() {
         String userId = "archive-view";
@@ -277,6 +410,404 @@ class TaskControllerTest {
         }
     }
 
+    @Test
+    void conditionalUpdatesReportWhyNothingMatched() {
+        TaskResponse task = createTaskAs("conditional-user", "Conditional Task");
+        TaskUpdateRequest update = new TaskUpdateRequest("Renamed", null, "app", TaskComplexity.LOW, LocalDate.now().plusDays(2));
+        webTestClient.put()
+                .uri("/api/tasks/{id}", UUID.randomUUID())
+                .header("Authorization", bearer("conditional-user"))
+                .bodyValue(update)
+                .exchange()
+                .expectStatus().isNotFound();
+
+        LocalDate closeDate = LocalDate.now(ZoneOffset.UTC).minusDays(3);
+        webTestClient.post()
+                .uri("/api/tasks/{id}/status", task.id())
+                .header("Authorization", bearer("conditional-user"))
+                .bodyValue(new TaskStatusUpdateRequest(TaskStatus.CLOSED, null, closeDate))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Start date is required before closing a task");
+
+        webTestClient.post()
+                .uri("/api/tasks/{id}/status", task.id())
+                .header("Authorization", bearer("conditional-user"))
+                .bodyValue(new TaskStatusUpdateRequest(TaskStatus.IN_PROGRESS, closeDate.plusDays(1), null))
+                .exchange()
+                .expectStatus().isOk();
+        webTestClient.post()
+                .uri("/api/tasks/{id}/status", task.id())
+                .header("Authorization", bearer("conditional-user"))
+                .bodyValue(new TaskStatusUpdateRequest(TaskStatus.CLOSED, null, closeDate))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Close date must be on or after the start date");
+
+        webTestClient.post()
+                .uri("/api/tasks/{id}/status", task.id())
+                .header("Authorization", bearer("conditional-user"))
+                .bodyValue(new TaskStatusUpdateRequest(TaskStatus.CLOSED, null, closeDate.plusDays(1)))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Conditional Task")
+                .jsonPath("$.startedAt").isEqualTo(closeDate.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant().toString());
+        webTestClient.post()
+                .uri("/api/tasks/{id}/status", task.id())
+                .header("Authorization", bearer("conditional-user"))
+                .bodyValue(new TaskStatusUpdateRequest(TaskStatus.CLOSED, null, null))
+                .exchange()
+                .expectStatus().isOk();
+        webTestClient.post()
+                .uri("/api/tasks/{id}/status", task.id())
+                .header("Authorization", bearer("conditional-user"))
+                .bodyValue(new TaskStatusUpdateRequest(TaskStatus.OPEN, null, null))
+                .exchange()
+                .expectStatus().isBadRequest();
+        webTestClient.put()
+                .uri("/api/tasks/{id}", task.id())
+                .header("Authorization", bearer("conditional-user"))
+                .bodyValue(update)
+                .exchange()
+                .expectStatus().isBadRequest();
+        webTestClient.post()
+                .uri("/api/tasks/{id}/status", task.id())
+                .header("Authorization", bearer("someone-else"))
+                .bodyValue(new TaskStatusUpdateRequest(TaskStatus.CLOSED, null, null))
+                .exchange()
+                .expectStatus().isForbidden();
+
+        List<TaskEventType> events = taskOutboxRepository.findByTaskIdOrderBySeqAsc(task.id())
+                .map(TaskOutboxEntity::getEventType)
+                .collectList()
+                .block();
+        if (!events.equals(List.of(TaskEventType.CREATED, TaskEventType.STATUS_CHANGED, TaskEventType.STATUS_CHANGED))) {
+            throw new AssertionError("Expected only the start and the close to be recorded but got " + events);
+        }
+    }
+
+    @Test
+    void bulkAppliesValidOperationsAndReportsEachResult() {
+        TaskResponse first = createTaskAs("bulk-user", "Bulk One");
+        TaskResponse second = createTaskAs("bulk-user", "Bulk Two");
+        TaskResponse foreign = createTaskAs("bulk-other", "Not Mine");
+        LocalDate yesterday = LocalDate.now(ZoneOffset.UTC).minusDays(1);
+        List<TaskBulkOperation> operations = List.of(
+                new TaskBulkOperation(TaskBulkOperation.Type.CREATE, null, sampleCreateRequest("Bulk Three"), null, null, null, null),
+                new TaskBulkOperation(TaskBulkOperation.Type.UPDATE, first.id(), null,
+                        new TaskUpdateRequest("Bulk One Renamed", "desc", "app", TaskComplexity.HIGH, LocalDate.now().plusDays(4)), null, null, null),
+                new TaskBulkOperation(TaskBulkOperation.Type.NOTE, first.id(), null, null, null, new TaskNoteRequest("bulk note"), null),
+                new TaskBulkOperation(TaskBulkOperation.Type.STATUS, second.id(), null, null,
+                        new TaskStatusUpdateRequest(TaskStatus.CLOSED, yesterday, yesterday), null, null),
+                new TaskBulkOperation(TaskBulkOperation.Type.NOTE, second.id(), null, null, null, new TaskNoteRequest("too late"), null),
+                new TaskBulkOperation(TaskBulkOperation.Type.STATUS, foreign.id(), null, null,
+                        new TaskStatusUpdateRequest(TaskStatus.IN_PROGRESS, null, null), null, null),
+                new TaskBulkOperation(TaskBulkOperation.Type.UPDATE, UUID.randomUUID(), null,
+                        new TaskUpdateRequest("Missing", null, "app", TaskComplexity.LOW, LocalDate.now()), null, null, null),
+                new TaskBulkOperation(TaskBulkOperation.Type.UPDATE, first.id(), null, null, null, null, null));
+
+        TaskBulkResponse response = webTestClient.post()
+                .uri("/api/tasks/bulk")
+                .header("Authorization", bearer("bulk-user"))
+                .bodyValue(new TaskBulkRequest(operations))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(TaskBulkResponse.class)
+                .returnResult()
+                .getResponseBody();
+
+        List<Integer> statuses = response.results().stream().map(TaskBulkResult::status).toList();
+        if (!statuses.equals(List.of(201, 200, 200, 200, 400, 403, 404, 400))) {
+            throw new AssertionError("Unexpected per-item statuses " + statuses);
+        }
+        TaskResponse renamed = response.results().get(2).task();
+        if (!renamed.title().equals("Bulk One Renamed") || renamed.notes().size() != 1) {
+            throw new AssertionError("Expected the renamed task with its new note but got " + renamed);
+        }
+
+        webTestClient.get()
+                .uri("/api/tasks/{id}", second.id())
+                .header("Authorization", bearer("bulk-user"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo("CLOSED")
+                .jsonPath("$.notes.length()").isEqualTo(0);
+        webTestClient.get()
+                .uri("/api/tasks/{id}", response.results().get(0).taskId())
+                .header("Authorization", bearer("bulk-user"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Bulk Three");
+        webTestClient.get()
+                .uri("/api/tasks/{id}", foreign.id())
+                .header("Authorization", bearer("bulk-other"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo("OPEN");
+
+        List<TaskEventType> secondEvents = taskOutboxRepository.findByTaskIdOrderBySeqAsc(second.id())
+                .map(TaskOutboxEntity::getEventType)
+                .collectList()
+                .block();
+        if (!secondEvents.equals(List.of(TaskEventType.CREATED, TaskEventType.STATUS_CHANGED))) {
+            throw new AssertionError("Expected the bulk close to be recorded in the outbox but got " + secondEvents);
+        }
+    }
+
+    @Test
+    void bulkRejectsEmptyAndOversizedRequests() {
+        webTestClient.post()
+                .uri("/api/tasks/bulk")
+                .header("Authorization", bearer("bulk-user"))
+                .bodyValue(new TaskBulkRequest(List.of()))
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        TaskBulkOperation create = new TaskBulkOperation(TaskBulkOperation.Type.CREATE, null, sampleCreateRequest("Too many"), null, null, null, null);
+        webTestClient.post()
+                .uri("/api/tasks/bulk")
+                .header("Authorization", bearer("bulk-user"))
+                .bodyValue(new TaskBulkRequest(Collections.nCopies(TaskBulkRequest.MAX_OPERATIONS + 1, create)))
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void ifMatchRejectsWritesAgainstAStaleVersion() {
+        TaskResponse task = createTaskAs("version-user", "Versioned");
+        TaskUpdateRequest update = new TaskUpdateRequest("Renamed", null, "app", TaskComplexity.LOW, LocalDate.now().plusDays(2));
+
+        webTestClient.get()
+                .uri("/api/tasks/{id}", task.id())
+                .header("Authorization", bearer("version-user"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "\"0\"");
+        webTestClient.put()
+                .uri("/api/tasks/{id}", task.id())
+                .header("Authorization", bearer("version-user"))
+                .header("If-Match", "\"0\"")
+                .bodyValue(update)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "\"1\"")
+                .expectBody()
+                .jsonPath("$.version").isEqualTo(1);
+        webTestClient.put()
+                .uri("/api/tasks/{id}", task.id())
+                .header("Authorization", bearer("version-user"))
+                .header("If-Match", "\"0\"")
+                .bodyValue(new TaskUpdateRequest("Lost", null, "app", TaskComplexity.LOW, LocalDate.now()))
+                .exchange()
+                .expectStatus().isEqualTo(409);
+        webTestClient.post()
+                .uri("/api/tasks/{id}/notes", task.id())
+                .header("Authorization", bearer("version-user"))
+                .header("If-Match", "\"1\"")
+                .bodyValue(new TaskNoteRequest("noted"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "\"2\"");
+        webTestClient.post()
+                .uri("/api/tasks/{id}/status", task.id())
+                .header("Authorization", bearer("version-user"))
+                .header("If-Match", "\"1\"")
+                .bodyValue(new TaskStatusUpdateRequest(TaskStatus.IN_PROGRESS, null, null))
+                .exchange()
+                .expectStatus().isEqualTo(409);
+        webTestClient.put()
+                .uri("/api/tasks/{id}", task.id())
+                .header("Authorization", bearer("version-user"))
+                .header("If-Match", "v2")
+                .bodyValue(update)
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        TaskBulkResponse bulk = webTestClient.post()
+                .uri("/api/tasks/bulk")
+                .header("Authorization", bearer("version-user"))
+                .bodyValue(new TaskBulkRequest(List.of(
+                        new TaskBulkOperation(TaskBulkOperation.Type.NOTE, task.id(), null, null, null, new TaskNoteRequest("stale"), 1L),
+                        new TaskBulkOperation(TaskBulkOperation.Type.STATUS, task.id(), null, null,
+                                new TaskStatusUpdateRequest(TaskStatus.IN_PROGRESS, null, null), null, 2L))))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(TaskBulkResponse.class)
+                .returnResult()
+                .getResponseBody();
+        List<Integer> statuses = bulk.results().stream().map(TaskBulkResult::status).toList();
+        if (!statuses.equals(List.of(409, 200)) || bulk.results().get(1).task().version() != 3) {
+            throw new AssertionError("Expected only the bulk operation at the current version to apply but got " + bulk);
+        }
+
+        webTestClient.get()
+                .uri("/api/tasks/{id}", task.id())
+                .header("Authorization", bearer("version-user"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "\"3\"")
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Renamed")
+                .jsonPath("$.status").isEqualTo("IN_PROGRESS")
+                .jsonPath("$.notes.length()").isEqualTo(1);
+    }
+
+    @Test
+    void parallelWritesAtOneVersionHaveASingleWinner() {
+        TaskResponse task = createTaskAs("race-user", "Raced");
+        List<Boolean> outcomes = Flux.range(0, 8)
+                .flatMap(i -> taskService.updateTask("race-user", task.id(),
+                                new TaskUpdateRequest("Edit " + i, null, "app", TaskComplexity.LOW, LocalDate.now()), 0L)
+                        .map(updated -> true)
+                        .onErrorResume(ResponseStatusException.class, e -> e.getStatusCode().value() == 409
+                                ? Mono.just(false)
+                                : Mono.error(e)))
+                .collectList()
+                .block();
+        if (outcomes.stream().filter(Boolean::booleanValue).count() != 1) {
+            throw new AssertionError("Expected exactly one write at version 0 to win but got " + outcomes);
+        }
+
+        List<TaskResponse> transitions = Flux.range(0, 8)
+                .flatMap(i -> taskService.updateStatus("race-user", task.id(),
+                        new TaskStatusUpdateRequest(i % 2 == 0 ? TaskStatus.IN_PROGRESS : TaskStatus.OPEN, null, null), null))
+                .collectList()
+                .block();
+        TaskResponse current = taskService.getTask("race-user", task.id()).block();
+        if (transitions.size() != 8 || current.version() != 9) {
+            throw new AssertionError("Expected every unpinned transition to apply but ended at version " + current.version());
+        }
+    }
+
+    @Test
+    void conditionalGetsAnswerNotModifiedUntilSomethingChanges() {
+        TaskResponse task = createTaskAs("poll-user", "Polled");
+        String listETag = webTestClient.get()
+                .uri("/api/tasks")
+                .header("Authorization", bearer("poll-user"))
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(TaskPageResponse.class)
+                .getResponseHeaders()
+                .getETag();
+
+        webTestClient.get()
+                .uri("/api/tasks")
+                .header("Authorization", bearer("poll-user"))
+                .header("If-None-Match", listETag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+        webTestClient.get()
+                .uri("/api/tasks/{id}", task.id())
+                .header("Authorization", bearer("poll-user"))
+                .header("If-None-Match", "\"0\"")
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals("ETag", "\"0\"");
+        webTestClient.get()
+                .uri("/api/tasks/{id}", task.id())
+                .header("Authorization", bearer("poll-intruder"))
+                .header("If-None-Match", "\"0\"")
+                .exchange()
+                .expectStatus().isForbidden();
+
+        appendNote("poll-user", task.id(), "changes the version only");
+
+        String changedListETag = webTestClient.get()
+                .uri("/api/tasks")
+                .header("Authorization", bearer("poll-user"))
+                .header("If-None-Match", listETag)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(TaskPageResponse.class)
+                .getResponseHeaders()
+                .getETag();
+        if (changedListETag == null || changedListETag.equals(listETag)) {
+            throw new AssertionError("Expected a note append to change the list ETag " + listETag);
+        }
+        webTestClient.get()
+                .uri("/api/tasks/{id}", task.id())
+                .header("Authorization", bearer("poll-user"))
+                .header("If-None-Match", "\"0\"")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "\"1\"")
+                .expectBody()
+                .jsonPath("$.notes.length()").isEqualTo(1);
+        webTestClient.get()
+                .uri(uri -> uri.path("/api/tasks").queryParam("includeArchived", true).build())
+                .header("Authorization", bearer("poll-user"))
+                .header("If-None-Match", changedListETag)
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    void eventStreamPushesOnlyTheUsersCommittedChanges() {
+        Flux<TaskChangeEvent> events = webTestClient.get()
+                .uri("/api/tasks/events")
+                .header("Authorization", bearer("stream-user"))
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<TaskChangeEvent>>() {
+                })
+                .getResponseBody()
+                .mapNotNull(ServerSentEvent::data);
+
+        // The server registers the subscriber before the response starts, so these changes are all streamed.
+        createTaskAs("stream-other", "Someone else's");
+        TaskResponse task = createTaskAs("stream-user", "Streamed");
+        webTestClient.put()
+                .uri("/api/tasks/{id}", task.id())
+                .header("Authorization", bearer("stream-user"))
+                .header("If-Match", "\"5\"")
+                .bodyValue(new TaskUpdateRequest("Rejected", null, "app", TaskComplexity.LOW, LocalDate.now()))
+                .exchange()
+                .expectStatus().isEqualTo(409);
+        appendNote("stream-user", task.id(), "streamed note");
+
+        StepVerifier.create(events)
+                .expectNextMatches(event -> event.type() == TaskChangeEvent.Type.CREATED
+                        && event.taskId().equals(task.id()) && event.version() == 0)
+                .expectNextMatches(event -> event.type() == TaskChangeEvent.Type.NOTE_APPENDED && event.version() == 1)
+                .thenCancel()
+                .verify(Duration.ofSeconds(10));
+    }
+
+    @Test
+    void repeatedTokensAreDecodedFromCache() {
+        String token = bearer("cache-user");
+        double hitsBefore = jwtCacheHits();
+        for (int i = 0; i < 2; i++) {
+            webTestClient.get()
+                    .uri("/api/tasks")
+                    .header("Authorization", token)
+                    .exchange()
+                    .expectStatus().isOk();
+        }
+        if (jwtCacheHits() - hitsBefore != 1) {
+            throw new AssertionError("Expected the second request to reuse the decoded token");
+        }
+
+        webTestClient.get()
+                .uri("/api/tasks")
+                .header("Authorization", token.substring(0, token.length() - 2) + "xx")
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    private double jwtCacheHits() {
+        return meterRegistry.get("cache.gets").tag("cache", "jwt").tag("result", "hit").functionCounter().count();
+    }
+
     private TaskResponse createTaskAs(String userId, String title) {
         TaskCreateRequest request = sampleCreateRequest(title);
         return createTaskAs(userId, request);
@@ -303,6 +834,36 @@ class TaskControllerTest {
         return response;
     }
 
+    private TaskPageResponse listByCursor(String userId, String cursor, boolean includeTotal) {
+        TaskPageResponse response = webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/api/tasks")
+                        .queryParam("cursor", cursor)
+                        .queryParam("size", 2)
+                        .queryParam("sortField", "due")
+                        .queryParam("sortDirection", "asc")
+                        .queryParam("includeTotal", includeTotal)
+                        .build())
+                .header("Authorization", bearer(userId))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(TaskPageResponse.class)
+                .returnResult()
+                .getResponseBody();
+        if (response == null) {
+            throw new AssertionError("Cursor page response was null");
+        }
+        return response;
+    }
+
+    private void appendNote(String userId, UUID taskId, String content) {
+        webTestClient.post()
+                .uri("/api/tasks/{id}/notes", taskId)
+                .header("Authorization", bearer(userId))
+                .bodyValue(new com.personal.tracker.task.dto.TaskNoteRequest(content))
+                .exchange()
+                .expectStatus().isOk();
+    }
+
     private TaskCreateRequest sampleCreateRequest(String title) {
         return sampleCreateRequest(title, LocalDate.now().plusDays(5), null);
     }
@@ -0,0 +1,63 @@
+package com.personal.tracker.task.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.LongStream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.personal.tracker.task.dto.TaskChangeEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.h2.H2ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.test.StepVerifier;
+
+class TaskChangeBroadcasterTest {
+
+    @Test
+    void slowSubscriberKeepsOnlyTheNewestEvents() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TaskChangeBroadcaster broadcaster = broadcaster(meterRegistry, 3);
+        UUID taskId = UUID.randomUUID();
+        List<TaskChangeEvent> events = LongStream.rangeClosed(1, 6)
+                .mapToObj(version -> new TaskChangeEvent("slow-user", taskId, TaskChangeEvent.Type.UPDATED, version))
+                .toList();
+
+        StepVerifier.create(broadcaster.stream("slow-user").mapNotNull(ServerSentEvent::data).map(TaskChangeEvent::version), 0)
+                .then(() -> broadcaster.publish(events).block())
+                .then(() -> broadcaster.publish(List.of(new TaskChangeEvent("other-user", taskId, TaskChangeEvent.Type.CREATED, 0L))).block())
+                .thenRequest(Long.MAX_VALUE)
+                .expectNext(4L, 5L, 6L)
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+
+        if (broadcaster.subscriberCount() != 0) {
+            throw new AssertionError("Expected the cancelled subscriber to be removed");
+        }
+        if (meterRegistry.counter("task.events.dropped").count() < 3) {
+            throw new AssertionError("Expected the overflowing events to be counted as dropped");
+        }
+    }
+
+    @Test
+    void heartbeatsKeepAnIdleStreamAlive() {
+        TaskChangeBroadcaster broadcaster = broadcaster(new SimpleMeterRegistry(), 3);
+        StepVerifier.withVirtualTime(() -> broadcaster.stream("idle-user").map(ServerSentEvent::comment))
+                .expectNext("connected")
+                .thenAwait(Duration.ofSeconds(1))
+                .expectNext("heartbeat")
+                .thenAwait(Duration.ofSeconds(1))
+                .expectNext("heartbeat")
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    private TaskChangeBroadcaster broadcaster(SimpleMeterRegistry meterRegistry, int bufferSize) {
+        ConnectionFactory connectionFactory = H2ConnectionFactory.inMemory("task-events");
+        return new TaskChangeBroadcaster(connectionFactory, DatabaseClient.create(connectionFactory), new ObjectMapper(),
+                meterRegistry, "task_changes", bufferSize, Duration.ofSeconds(1));
+    }
+}
@@ -0,0 +1,163 @@
+package com.personal.tracker.task.service;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+
+import com.personal.tracker.task.domain.TaskEntity;
+import com.personal.tracker.task.repository.TaskRepository;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.core.StatementMapper;
+import org.springframework.data.relational.core.query.Query;
+import org.springframework.r2dbc.core.PreparedOperation;
+import org.springframework.r2dbc.core.binding.BindTarget;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/**
+ * Plans the list queries on embedded Postgres, where the partial and covering indexes from the postgresql
+ * migrations exist, against enough rows that the planner's choice means something.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class TaskQueryPlanTest {
+
+    private static final Map<String, String> SORT_INDEXES = Map.of(
+            "due", "deadline",
+            "complexity", "complexity",
+            "created", "created");
+
+    private static EmbeddedPostgres postgres;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private R2dbcEntityTemplate template;
+
+    @BeforeAll
+    static void requireUnprivilegedUser() {
+        Assumptions.assumeFalse("root".equals(System.getProperty("user.name")), "Postgres refuses to run as root");
+    }
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) throws IOException {
+        // The embedded default of asynchronous commit keeps VACUUM from marking freshly inserted rows
+        // all-visible, and without the visibility map the planner never picks an index-only scan.
+        postgres = EmbeddedPostgres.builder()
+                .setServerConfig("synchronous_commit", "on")
+                .start();
+        registry.add("spring.r2dbc.url", () -> "r2dbc:postgresql://localhost:" + postgres.getPort() + "/postgres");
+        registry.add("spring.r2dbc.username", () -> "postgres");
+        registry.add("spring.r2dbc.password", () -> "postgres");
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @BeforeEach
+    void seedTasks() throws SQLException {
+        // 50k tasks over 200 users, a third of them closed. VACUUM fills the visibility map that index-only
+        // scans rely on.
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+                Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE tasks CASCADE");
+            statement.execute("""
+                    INSERT INTO tasks (id, user_id, title, complexity, status, deadline_date, created_at, updated_at)
+                    SELECT gen_random_uuid(), 'user-' || (n % 200), 'task ' || n,
+                           (ARRAY['LOW', 'MEDIUM', 'HIGH', 'VERY_HIGH'])[1 + n % 4],
+                           CASE WHEN n % 3 = 0 THEN 'CLOSED' ELSE 'OPEN' END,
+                           CURRENT_DATE + n % 90, now() - n * INTERVAL '1 minute', now()
+                    FROM generate_series(1, 50000) AS n""");
+            statement.execute("VACUUM ANALYZE tasks");
+        }
+    }
+
+    @Test
+    void listQueriesUseThePartialIndexForTheirStatusAndSort() {
+        for (boolean archived : List.of(false, true)) {
+            for (Map.Entry<String, String> sort : SORT_INDEXES.entrySet()) {
+                for (String direction : List.of("asc", "desc")) {
+                    String index = "idx_tasks_" + (archived ? "closed_" : "active_") + sort.getValue();
+                    String plan = explain(taskService.listQuery("user-7", archived, sort.getKey(), direction));
+                    if (!plan.contains("Index Scan") || !plan.contains(" " + index + " ") || plan.contains("Sort")) {
+                        throw new AssertionError("Expected an ordered scan of " + index + " for archived=" + archived
+                                + ", sort=" + sort.getKey() + " " + direction + " but got:\n" + plan);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void listVersionQueriesReadOnlyTheListVersionIndex() {
+        Map<String, String> indexes = Map.of(
+                TaskRepository.ACTIVE_LIST_VERSION, "idx_tasks_active_list_version",
+                TaskRepository.ARCHIVED_LIST_VERSION, "idx_tasks_closed_list_version");
+        for (Map.Entry<String, String> query : indexes.entrySet()) {
+            String plan = String.join("\n", template.getDatabaseClient()
+                    .sql("EXPLAIN " + query.getKey())
+                    .bind("userId", "user-7")
+                    .map(row -> row.get(0, String.class))
+                    .all()
+                    .collectList()
+                    .blockOptional()
+                    .orElse(List.of()));
+            if (!plan.contains("Index Only Scan using " + query.getValue() + " ")) {
+                throw new AssertionError("Expected an index-only scan of " + query.getValue() + " but got:\n" + plan);
+            }
+        }
+    }
+
+    /**
+     * EXPLAIN for the first page of a list, built the way TaskService's template select builds it.
+     */
+    private String explain(Query query) {
+        StatementMapper mapper = template.getDataAccessStrategy().getStatementMapper().forType(TaskEntity.class);
+        StatementMapper.SelectSpec select = mapper.createSelect("tasks")
+                .withProjection("*")
+                .withCriteria(query.getCriteria().orElseThrow())
+                .withSort(query.getSort())
+                .limit(20);
+        PreparedOperation<?> operation = mapper.getMappedObject(select);
+
+        return String.join("\n", template.getDatabaseClient()
+                .sql(new PreparedOperation<>() {
+                    @Override
+                    public Object getSource() {
+                        return operation.getSource();
+                    }
+
+                    @Override
+                    public void bindTo(BindTarget target) {
+                        operation.bindTo(target);
+                    }
+
+                    @Override
+                    public String toQuery() {
+                        return "EXPLAIN " + operation.toQuery();
+                    }
+                })
+                .map(row -> row.get(0, String.class))
+                .all()
+                .collectList()
+                .blockOptional()
+                .orElse(List.of()));
+    }
+}